@@ -35,6 +35,11 @@ public class RedisConstants {
      */
     public static final long ORDER_EXPIRE = 30 * CACHE_EXPIRE_MINUTE;
 
+    /**
+     * 订单超时延迟队列（ZSET，成员为订单ID，分值为过期时间戳）
+     */
+    public static final String ORDER_EXPIRE_QUEUE_KEY = ORDER_KEY + "expire:queue";
+
     /**
      * 用户Token缓存Key前缀
      */
@@ -55,6 +60,11 @@ public class RedisConstants {
      */
     public static final long EXCHANGE_RATE_EXPIRE = CACHE_EXPIRE_HOUR;
 
+    /**
+     * 网关限流计数Key前缀
+     */
+    public static final String RATE_LIMIT_KEY = "rate:limit:";
+
     /**
      * 分布式锁Key前缀
      */
@@ -64,4 +74,14 @@ public class RedisConstants {
      * 分布式锁默认过期时间（30秒）
      */
     public static final long LOCK_EXPIRE = 30L;
+
+    /**
+     * 商品解析锁Key前缀（多实例间合并同一商品的解析）
+     */
+    public static final String PRODUCT_RESOLVE_LOCK_KEY = LOCK_KEY + "product:resolve:";
+
+    /**
+     * ID生成器节点租约Key前缀（id:node:{服务名}:{节点ID}）
+     */
+    public static final String ID_NODE_KEY = "id:node:";
 }
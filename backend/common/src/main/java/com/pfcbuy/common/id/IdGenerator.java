@@ -0,0 +1,178 @@
+package com.pfcbuy.common.id;
+
+import com.pfcbuy.common.constants.RedisConstants;
+import com.pfcbuy.common.utils.StringUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 业务单号生成器
+ * <p>
+ * 基于 {@link SnowflakeIdGenerator}，节点ID通过Redis租约分配（同一服务内唯一），
+ * 后台定期续约；Redis不可用时使用配置的节点ID，未配置则随机选取并告警。
+ * 单号格式：业务前缀 + 十进制ID，如 PFC + 19位数字。
+ * 仅在被注入时初始化，未使用的服务不会占用节点。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Lazy
+@Component
+public class IdGenerator {
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private final String keyPrefix;
+
+    private final int configuredNodeId;
+
+    private final Duration leaseTtl;
+
+    private final String leaseToken = StringUtil.generateUUID();
+
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0);
+
+    private ScheduledExecutorService renewExecutor;
+
+    private volatile String leaseKey;
+
+    public IdGenerator(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                       @Value("${spring.application.name:default}") String applicationName,
+                       @Value("${id-generator.node-id:-1}") int configuredNodeId,
+                       @Value("${id-generator.lease-ttl:60s}") Duration leaseTtl) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.keyPrefix = RedisConstants.ID_NODE_KEY + applicationName + ":";
+        this.configuredNodeId = configuredNodeId;
+        this.leaseTtl = leaseTtl;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (configuredNodeId >= 0) {
+            generator.setNodeId(configuredNodeId);
+            log.info("ID生成器使用配置的节点ID: {}", configuredNodeId);
+            return;
+        }
+
+        Integer nodeId = acquireNode();
+        if (nodeId == null) {
+            int randomNodeId = ThreadLocalRandom.current().nextInt(SnowflakeIdGenerator.MAX_NODE_ID + 1);
+            generator.setNodeId(randomNodeId);
+            log.warn("ID生成器无法从Redis分配节点ID，随机使用节点ID: {}（多实例部署请配置id-generator.node-id）", randomNodeId);
+            return;
+        }
+
+        generator.setNodeId(nodeId);
+        long renewMillis = leaseTtl.toMillis() / 3;
+        renewExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "id-node-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewExecutor.scheduleWithFixedDelay(this::renew, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+        log.info("ID生成器节点ID: {}", nodeId);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (renewExecutor == null) {
+            return;
+        }
+        renewExecutor.shutdownNow();
+        try {
+            redisTemplateProvider.getObject().execute(RELEASE_SCRIPT, Collections.singletonList(leaseKey), leaseToken);
+        } catch (Exception e) {
+            log.warn("释放ID节点租约失败，等待自动过期: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 生成数字ID
+     */
+    public long nextId() {
+        return generator.nextId();
+    }
+
+    /**
+     * 生成业务单号
+     *
+     * @param prefix 业务前缀，如 PFC / PKG / SH
+     * @return 前缀 + 十进制ID
+     */
+    public String nextNo(String prefix) {
+        return prefix.concat(Long.toString(generator.nextId()));
+    }
+
+    /**
+     * 从随机位置开始依次尝试占用空闲节点
+     *
+     * @return 节点ID，Redis不可用或节点已满返回null
+     */
+    private Integer acquireNode() {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return null;
+        }
+        int nodeCount = SnowflakeIdGenerator.MAX_NODE_ID + 1;
+        int start = ThreadLocalRandom.current().nextInt(nodeCount);
+        try {
+            for (int i = 0; i < nodeCount; i++) {
+                int nodeId = (start + i) % nodeCount;
+                String key = keyPrefix + nodeId;
+                if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, leaseToken, leaseTtl))) {
+                    leaseKey = key;
+                    return nodeId;
+                }
+            }
+            log.error("ID生成器节点已全部占用: {}", keyPrefix);
+        } catch (Exception e) {
+            log.warn("分配ID节点失败: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 续约；租约已被其他实例占用时改用新的节点ID
+     */
+    private void renew() {
+        try {
+            Long renewed = redisTemplateProvider.getObject().execute(RENEW_SCRIPT,
+                    Collections.singletonList(leaseKey), leaseToken, String.valueOf(leaseTtl.toMillis()));
+            if (renewed != null && renewed > 0) {
+                return;
+            }
+            log.error("ID节点租约已丢失: {}，重新分配节点", leaseKey);
+            Integer nodeId = acquireNode();
+            if (nodeId != null) {
+                generator.setNodeId(nodeId);
+                log.info("ID生成器切换节点ID: {}", nodeId);
+            }
+        } catch (Exception e) {
+            // Redis暂时不可用，租约未过期前继续使用当前节点
+            log.warn("ID节点续约失败: {}", e.getMessage());
+        }
+    }
+}
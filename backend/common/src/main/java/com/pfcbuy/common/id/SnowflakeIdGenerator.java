@@ -0,0 +1,83 @@
+package com.pfcbuy.common.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake风格ID生成器（无锁）
+ * <p>
+ * 64位ID = 41位毫秒时间戳（自2024-01-01起） + 10位节点ID + 12位序列号。
+ * 时间戳和序列号保存在同一个AtomicLong中，一次CAS完成分配；
+ * 同一毫秒内序列号用尽或时钟回拨时沿用上次的时间戳继续递增（向后借用时间），
+ * 不阻塞等待，保证同一节点生成的ID严格递增。
+ *
+ * @author PfcBuy Team
+ */
+public final class SnowflakeIdGenerator {
+
+    /**
+     * 起始时间 2024-01-01T00:00:00Z
+     */
+    public static final long EPOCH_MILLIS = 1704067200000L;
+
+    private static final int NODE_BITS = 10;
+
+    private static final int SEQUENCE_BITS = 12;
+
+    /**
+     * 最大节点ID
+     */
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    /**
+     * 高位为相对时间戳，低12位为序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    private volatile long nodeBits;
+
+    public SnowflakeIdGenerator(int nodeId) {
+        setNodeId(nodeId);
+    }
+
+    /**
+     * 切换节点ID（节点租约丢失后改用新的节点ID）
+     */
+    public void setNodeId(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点ID超出范围[0, " + MAX_NODE_ID + "]: " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    /**
+     * 当前节点ID
+     */
+    public int getNodeId() {
+        return (int) (nodeBits >>> SEQUENCE_BITS);
+    }
+
+    /**
+     * 生成ID
+     */
+    public long nextId() {
+        long node = nodeBits;
+        for (;;) {
+            long current = state.get();
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            // 序列号溢出时进位到时间戳，等同于借用下一毫秒
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                return timestamp << (NODE_BITS + SEQUENCE_BITS) | node | sequence;
+            }
+        }
+    }
+
+    /**
+     * 解析ID中的生成时间（毫秒时间戳）
+     */
+    public static long extractTimestamp(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+}
@@ -0,0 +1,180 @@
+package com.pfcbuy.common.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 滚动窗口延迟直方图（HDR风格）
+ * <p>
+ * 采用对数-线性分桶：每个2的幂区间再等分为8个子桶，相对误差不超过12.5%。
+ * 窗口由若干时间片组成，记录时只做原子累加、不分配对象；时间片过期时原地清零复用。
+ *
+ * @author PfcBuy Team
+ */
+public class LatencyHistogram {
+
+    /**
+     * 子桶位数（每个2的幂区间等分为 2^SUB_BUCKET_BITS 个子桶）
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 小于该值的延迟按1微秒精度线性分桶
+     */
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT << 1;
+
+    /**
+     * 最大可记录延迟（微秒，约19小时），超过按最大值计
+     */
+    private static final long MAX_VALUE = (1L << 36) - 1;
+
+    private static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+    private final Slot[] slots;
+
+    private final long slotMillis;
+
+    public LatencyHistogram(int slotCount, long slotMillis) {
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+        this.slotMillis = slotMillis;
+    }
+
+    /**
+     * 记录一次延迟
+     *
+     * @param micros 延迟（微秒）
+     * @param nowMillis 当前时间（毫秒时间戳）
+     */
+    public void record(long micros, long nowMillis) {
+        long value = Math.min(Math.max(micros, 0L), MAX_VALUE);
+        long epoch = nowMillis / slotMillis;
+        Slot slot = slots[(int) (epoch % slots.length)];
+        if (slot.epoch != epoch) {
+            slot.rollTo(epoch);
+        }
+        slot.counts.incrementAndGet(bucketIndex(value));
+        slot.count.incrementAndGet();
+        slot.sum.addAndGet(value);
+        slot.max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * 合并窗口内所有时间片，计算统计值
+     *
+     * @param nowMillis 当前时间（毫秒时间戳）
+     * @return count、mean、p50、p90、p99、max（单位毫秒）
+     */
+    public Map<String, Object> snapshot(long nowMillis) {
+        long currentEpoch = nowMillis / slotMillis;
+        long[] merged = new long[BUCKET_COUNT];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (Slot slot : slots) {
+            long epoch = slot.epoch;
+            if (epoch <= currentEpoch - slots.length || epoch > currentEpoch) {
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                merged[i] += slot.counts.get(i);
+            }
+            count += slot.count.get();
+            sum += slot.sum.get();
+            max = Math.max(max, slot.max.get());
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", count);
+        snapshot.put("meanMs", count == 0 ? 0.0 : toMillis(sum / count));
+        // 桶上界可能超过实际最大值，按最大值截断
+        snapshot.put("p50Ms", toMillis(Math.min(max, percentile(merged, count, 0.50))));
+        snapshot.put("p90Ms", toMillis(Math.min(max, percentile(merged, count, 0.90))));
+        snapshot.put("p99Ms", toMillis(Math.min(max, percentile(merged, count, 0.99))));
+        snapshot.put("maxMs", toMillis(max));
+        return snapshot;
+    }
+
+    /**
+     * 窗口总时长（毫秒）
+     */
+    public long windowMillis() {
+        return slotMillis * slots.length;
+    }
+
+    private static long percentile(long[] buckets, long total, double quantile) {
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return bucketUpperBound(i);
+            }
+        }
+        return MAX_VALUE;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT + sub;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int offset = index - LINEAR_LIMIT;
+        int shift = offset / SUB_BUCKET_COUNT + 1;
+        long lower = (long) (SUB_BUCKET_COUNT + offset % SUB_BUCKET_COUNT) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * 时间片
+     */
+    private static final class Slot {
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+        private final AtomicLong count = new AtomicLong();
+
+        private final AtomicLong sum = new AtomicLong();
+
+        private final AtomicLong max = new AtomicLong();
+
+        private volatile long epoch = -1L;
+
+        /**
+         * 切换到新的时间片（仅在时间片轮转时发生，加锁避免重复清零）
+         */
+        private synchronized void rollTo(long newEpoch) {
+            if (epoch == newEpoch) {
+                return;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts.set(i, 0L);
+            }
+            count.set(0L);
+            sum.set(0L);
+            max.set(0L);
+            epoch = newEpoch;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.pfcbuy.common.page;
+
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.pfcbuy.common.entity.BaseEntity;
+import com.pfcbuy.common.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 基于 (create_time, id) 的游标分页
+ * <p>
+ * 按创建时间、ID倒序，以上一页最后一条记录作为游标，
+ * 不执行COUNT查询，也不使用OFFSET，翻到任意深度的页只扫描一页数据。
+ * 需要 (过滤列..., create_time, id) 上的联合索引配合。
+ * <pre>
+ * CursorPage&lt;Order&gt; page = KeysetPagination.select(orderMapper,
+ *         new LambdaQueryWrapper&lt;Order&gt;().eq(Order::getUserId, userId), cursor, size);
+ * </pre>
+ *
+ * @author PfcBuy Team
+ */
+public final class KeysetPagination {
+
+    /**
+     * 默认每页条数
+     */
+    public static final int DEFAULT_SIZE = 20;
+
+    /**
+     * 每页最大条数
+     */
+    public static final int MAX_SIZE = 100;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final char SEPARATOR = '_';
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * 查询一页数据
+     * <p>
+     * 排序由本方法追加，调用方的查询条件中不要再设置排序和LIMIT。
+     *
+     * @param mapper Mapper
+     * @param wrapper 查询条件
+     * @param cursor 上一页返回的游标，首页传null
+     * @param size 每页条数，为空时使用默认值，超过上限时截断
+     * @return 当前页数据和下一页游标
+     * @throws ValidationException 游标格式错误
+     */
+    public static <E extends BaseEntity> CursorPage<E> select(BaseMapper<E> mapper, AbstractWrapper<E, ?, ?> wrapper,
+                                                            String cursor, Integer size) {
+        int pageSize = size == null || size <= 0 ? DEFAULT_SIZE : Math.min(size, MAX_SIZE);
+        if (cursor != null && !cursor.isEmpty()) {
+            Position position = decode(cursor);
+            wrapper.apply("(create_time < {0} OR (create_time = {0} AND id < {1}))",
+                    position.createTime(), position.id());
+        }
+        // 多查一条判断是否还有下一页
+        wrapper.last("ORDER BY create_time DESC, id DESC LIMIT " + (pageSize + 1));
+
+        List<E> records = mapper.selectList(wrapper);
+        if (records.size() <= pageSize) {
+            return new CursorPage<>(records, null);
+        }
+
+        List<E> page = records.subList(0, pageSize);
+        E last = page.get(pageSize - 1);
+        return new CursorPage<>(page, encode(last.getCreateTime(), last.getId()));
+    }
+
+    /**
+     * 生成游标
+     */
+    static String encode(LocalDateTime createTime, Long id) {
+        String raw = createTime.atZone(ZONE).toInstant().toEpochMilli() + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     */
+    static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            long epochMillis = Long.parseLong(raw.substring(0, separator));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new Position(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZONE), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ValidationException("分页游标无效");
+        }
+    }
+
+    /**
+     * 游标位置
+     */
+    record Position(LocalDateTime createTime, long id) {
+    }
+}
@@ -0,0 +1,267 @@
+package com.pfcbuy.common.redis;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 紧凑二进制Redis序列化器
+ * <p>
+ * 格式：魔数(1) + 版本(1) + 标志(1) + 类型编号(varint) [+ 类名] [+ 原始长度(varint)] + Smile编码的对象。
+ * <ul>
+ *     <li>已注册的类型只写编号，不在每个值中写入完整类名</li>
+ *     <li>对象体使用Smile（二进制JSON）编码，超过阈值时用Deflate压缩</li>
+ *     <li>读取时遇到非魔数开头的旧数据，交给原有的JSON序列化器解析，兼容已有缓存</li>
+ * </ul>
+ * 类型编号一经使用不可修改或复用，否则旧缓存会被解析为错误的类型。
+ *
+ * @author PfcBuy Team
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    /**
+     * 魔数，JSON文本不会以该字节开头
+     */
+    static final byte MAGIC = (byte) 0xCB;
+
+    static final byte VERSION = 1;
+
+    private static final int FLAG_DEFLATED = 1;
+
+    /**
+     * 未注册类型的编号，其后写入完整类名
+     */
+    private static final int UNREGISTERED = 0;
+
+    /**
+     * 应用类型编号起始值，之前的编号保留给内置类型
+     */
+    public static final int FIRST_APPLICATION_TYPE_ID = 16;
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private final ObjectMapper binaryMapper;
+
+    private final RedisSerializer<Object> legacySerializer;
+
+    private final Map<Integer, Class<?>> typesById = new HashMap<>();
+
+    private final Map<Class<?>, Integer> idsByType = new HashMap<>();
+
+    private final Map<String, Class<?>> unregisteredTypes = new ConcurrentHashMap<>();
+
+    private final int compressThreshold;
+
+    /**
+     * @param legacySerializer 旧数据（JSON）的序列化器，用于兼容读取
+     * @param compressThreshold 对象体超过该字节数时压缩，小于等于0表示不压缩
+     */
+    public CompactRedisSerializer(RedisSerializer<Object> legacySerializer, int compressThreshold) {
+        this.legacySerializer = legacySerializer;
+        this.compressThreshold = compressThreshold;
+
+        SmileFactory smileFactory = SmileFactory.builder()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileParser.Feature.REQUIRE_HEADER)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        this.binaryMapper = new ObjectMapper(smileFactory);
+        this.binaryMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        this.binaryMapper.registerModule(new JavaTimeModule());
+        this.binaryMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        registerInternal(1, String.class);
+        registerInternal(2, Long.class);
+        registerInternal(3, Integer.class);
+        registerInternal(4, Boolean.class);
+        registerInternal(5, Double.class);
+        registerInternal(6, BigDecimal.class);
+    }
+
+    /**
+     * 注册类型编号
+     *
+     * @param id 类型编号，不小于 {@link #FIRST_APPLICATION_TYPE_ID}
+     * @param type 类型
+     * @return this
+     */
+    public CompactRedisSerializer register(int id, Class<?> type) {
+        if (id < FIRST_APPLICATION_TYPE_ID) {
+            throw new IllegalArgumentException("类型编号必须不小于" + FIRST_APPLICATION_TYPE_ID + ": " + id);
+        }
+        registerInternal(id, type);
+        return this;
+    }
+
+    private void registerInternal(int id, Class<?> type) {
+        Class<?> existing = typesById.putIfAbsent(id, type);
+        if (existing != null && existing != type) {
+            throw new IllegalArgumentException("类型编号重复: " + id + " -> " + existing.getName() + ", " + type.getName());
+        }
+        idsByType.put(type, id);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            byte[] body = binaryMapper.writeValueAsBytes(value);
+            boolean deflate = compressThreshold > 0 && body.length > compressThreshold;
+            byte[] payload = deflate ? deflate(body) : body;
+            if (deflate && payload.length >= body.length) {
+                // 压缩无收益
+                deflate = false;
+                payload = body;
+            }
+
+            Integer typeId = idsByType.get(value.getClass());
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length + 16);
+            out.write(MAGIC);
+            out.write(VERSION);
+            out.write(deflate ? FLAG_DEFLATED : 0);
+            if (typeId != null) {
+                writeVarInt(out, typeId);
+            } else {
+                byte[] className = value.getClass().getName().getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, UNREGISTERED);
+                writeVarInt(out, className.length);
+                out.write(className);
+            }
+            if (deflate) {
+                writeVarInt(out, body.length);
+            }
+            out.write(payload);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("序列化失败: " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return legacySerializer.deserialize(bytes);
+        }
+        if (bytes.length < 4 || bytes[1] != VERSION) {
+            throw new SerializationException("不支持的缓存格式版本: " + (bytes.length > 1 ? bytes[1] : -1));
+        }
+
+        try {
+            int flags = bytes[2];
+            int[] position = {3};
+            int typeId = readVarInt(bytes, position);
+            Class<?> type;
+            if (typeId == UNREGISTERED) {
+                int length = readVarInt(bytes, position);
+                String className = new String(bytes, position[0], length, StandardCharsets.UTF_8);
+                position[0] += length;
+                type = resolveClass(className);
+            } else {
+                type = typesById.get(typeId);
+                if (type == null) {
+                    throw new SerializationException("未注册的类型编号: " + typeId);
+                }
+            }
+
+            if ((flags & FLAG_DEFLATED) != 0) {
+                int originalLength = readVarInt(bytes, position);
+                byte[] body = inflate(bytes, position[0], bytes.length - position[0], originalLength);
+                return binaryMapper.readValue(body, type);
+            }
+            return binaryMapper.readValue(bytes, position[0], bytes.length - position[0], type);
+        } catch (IOException | DataFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("反序列化失败", e);
+        }
+    }
+
+    private Class<?> resolveClass(String className) {
+        return unregisteredTypes.computeIfAbsent(className, name -> {
+            try {
+                return Class.forName(name, false, CompactRedisSerializer.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new SerializationException("找不到缓存值类型: " + name, e);
+            }
+        });
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        byte[] buffer = new byte[Math.max(64, input.length / 2)];
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int length, int originalLength) throws DataFormatException {
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(input, offset, length);
+        byte[] output = new byte[originalLength];
+        int read = 0;
+        while (read < originalLength && !inflater.finished()) {
+            int n = inflater.inflate(output, read, originalLength - read);
+            if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                break;
+            }
+            read += n;
+        }
+        if (read != originalLength) {
+            throw new DataFormatException("解压长度不符: expected=" + originalLength + ", actual=" + read);
+        }
+        return output;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] bytes, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("varint格式错误");
+    }
+}
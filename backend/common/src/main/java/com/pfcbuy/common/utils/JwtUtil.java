@@ -3,14 +3,13 @@ package com.pfcbuy.common.utils;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JWT工具类
@@ -27,12 +26,33 @@ public class JwtUtil {
     // Token有效期（24小时）
     private static final long DEFAULT_EXPIRATION_TIME = 86400000L;
 
+    // 按密钥缓存的验证器（签名Key和JwtParser只构建一次）
+    private static final Map<String, JwtVerifier> VERIFIERS = new ConcurrentHashMap<>();
+
     /**
-     * 生成密钥
+     * 获取默认密钥的验证器
+     *
+     * @return JWT验证器
+     */
+    public static JwtVerifier verifier() {
+        return verifier(DEFAULT_SECRET_KEY);
+    }
+
+    /**
+     * 获取指定密钥的验证器（每个密钥只构建一次）
+     *
+     * @param secretKey 密钥
+     * @return JWT验证器
+     */
+    public static JwtVerifier verifier(String secretKey) {
+        return VERIFIERS.computeIfAbsent(secretKey, JwtVerifier::new);
+    }
+
+    /**
+     * 获取密钥
      */
     private static Key getSigningKey(String secretKey) {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return verifier(secretKey).getSigningKey();
     }
 
     /**
@@ -114,11 +134,7 @@ public class JwtUtil {
      */
     public static Claims getClaimsFromToken(String token, String secretKey) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey(secretKey))
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return verifier(secretKey).parseClaims(token);
         } catch (Exception e) {
             log.error("解析Token失败: {}", e.getMessage());
             return null;
@@ -143,7 +159,16 @@ public class JwtUtil {
      * @return 用户ID
      */
     public static Long getUserIdFromToken(String token, String secretKey) {
-        Claims claims = getClaimsFromToken(token, secretKey);
+        return getUserIdFromClaims(getClaimsFromToken(token, secretKey));
+    }
+
+    /**
+     * 从已解析的Claims中获取用户ID
+     *
+     * @param claims Claims
+     * @return 用户ID
+     */
+    public static Long getUserIdFromClaims(Claims claims) {
         if (claims != null) {
             Object userId = claims.get("userId");
             if (userId instanceof Integer) {
@@ -195,16 +220,7 @@ public class JwtUtil {
      * @return true-已过期 false-未过期
      */
     public static boolean isTokenExpired(String token, String secretKey) {
-        try {
-            Claims claims = getClaimsFromToken(token, secretKey);
-            if (claims == null) {
-                return true;
-            }
-            Date expiration = claims.getExpiration();
-            return expiration.before(new Date());
-        } catch (Exception e) {
-            return true;
-        }
+        return !verifier(secretKey).verify(token).isValid();
     }
 
     /**
@@ -227,12 +243,11 @@ public class JwtUtil {
      * @return true-有效 false-无效
      */
     public static boolean validateToken(String token, String username, String secretKey) {
-        try {
-            String tokenUsername = getUsernameFromToken(token, secretKey);
-            return username.equals(tokenUsername) && !isTokenExpired(token, secretKey);
-        } catch (Exception e) {
-            log.error("验证Token失败: {}", e.getMessage());
+        JwtVerifyResult result = verifier(secretKey).verify(token);
+        if (!result.isValid()) {
+            log.error("验证Token失败: {}", result.getReason().getDescription());
             return false;
         }
+        return username.equals(result.getUsername());
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.pfcbuy.common.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+
+/**
+ * 预置密钥的JWT验证器
+ * <p>
+ * 每个密钥只构建一次签名Key和JwtParser（两者均线程安全），
+ * {@link #verify(String)} 对Token只解析一次并返回完整的验证结果。
+ * 通过 {@link JwtUtil#verifier(String)} 获取共享实例。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+public class JwtVerifier {
+
+    /**
+     * 签名密钥
+     */
+    @Getter
+    private final Key signingKey;
+
+    private final JwtParser parser;
+
+    JwtVerifier(String secretKey) {
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    /**
+     * 解析并验证Token
+     *
+     * @param token JWT token
+     * @return 验证结果，不会返回null
+     */
+    public JwtVerifyResult verify(String token) {
+        if (token == null || token.isBlank()) {
+            return JwtVerifyResult.invalid(JwtVerifyResult.Reason.EMPTY);
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Long userId = JwtUtil.getUserIdFromClaims(claims);
+            if (userId == null || claims.getExpiration() == null) {
+                return JwtVerifyResult.invalid(JwtVerifyResult.Reason.MISSING_CLAIMS);
+            }
+            return JwtVerifyResult.valid(userId, claims.getSubject(), claims.getExpiration());
+        } catch (ExpiredJwtException e) {
+            return JwtVerifyResult.invalid(JwtVerifyResult.Reason.EXPIRED);
+        } catch (SecurityException e) {
+            return JwtVerifyResult.invalid(JwtVerifyResult.Reason.INVALID_SIGNATURE);
+        } catch (MalformedJwtException | IllegalArgumentException e) {
+            return JwtVerifyResult.invalid(JwtVerifyResult.Reason.MALFORMED);
+        } catch (UnsupportedJwtException e) {
+            return JwtVerifyResult.invalid(JwtVerifyResult.Reason.UNSUPPORTED);
+        } catch (JwtException e) {
+            log.warn("解析Token失败: {}", e.getMessage());
+            return JwtVerifyResult.invalid(JwtVerifyResult.Reason.MALFORMED);
+        }
+    }
+
+    /**
+     * 解析Token获取Claims
+     *
+     * @param token JWT token
+     * @return Claims
+     * @throws JwtException 解析或验签失败
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,81 @@
+package com.pfcbuy.common.utils;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Date;
+
+/**
+ * JWT验证结果
+ * <p>
+ * 一次解析得到的全部信息：是否有效、失败原因、用户ID、用户名和过期时间。
+ *
+ * @author PfcBuy Team
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class JwtVerifyResult {
+
+    /**
+     * 验证结论
+     */
+    private final Reason reason;
+
+    /**
+     * 用户ID
+     */
+    private final Long userId;
+
+    /**
+     * 用户名
+     */
+    private final String username;
+
+    /**
+     * 过期时间
+     */
+    private final Date expiration;
+
+    /**
+     * 验证通过
+     */
+    public static JwtVerifyResult valid(Long userId, String username, Date expiration) {
+        return new JwtVerifyResult(Reason.VALID, userId, username, expiration);
+    }
+
+    /**
+     * 验证失败
+     */
+    public static JwtVerifyResult invalid(Reason reason) {
+        return new JwtVerifyResult(reason, null, null, null);
+    }
+
+    /**
+     * 是否有效
+     *
+     * @return true-有效 false-无效
+     */
+    public boolean isValid() {
+        return reason == Reason.VALID;
+    }
+
+    /**
+     * 验证结论
+     */
+    @Getter
+    @AllArgsConstructor
+    public enum Reason {
+        VALID("有效"),
+        EMPTY("Token为空"),
+        EXPIRED("Token已过期"),
+        INVALID_SIGNATURE("签名无效"),
+        MALFORMED("格式错误"),
+        UNSUPPORTED("不支持的Token"),
+        MISSING_CLAIMS("缺少必要声明");
+
+        private final String description;
+    }
+}
@@ -0,0 +1,95 @@
+package com.pfcbuy.common.utils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 进程内请求合并（single-flight）
+ * <p>
+ * 同一Key同一时刻只执行一次加载，并发调用方等待并共享其结果（包括异常）。
+ * 加载结束后立即移除，不做结果缓存。
+ *
+ * @param <K> Key类型
+ * @param <V> 结果类型
+ * @author PfcBuy Team
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inflight = new ConcurrentHashMap<>();
+
+    private final LongAdder executed = new LongAdder();
+
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * 执行加载，同一Key已有加载在进行时等待其结果
+     *
+     * @param key Key
+     * @param loader 加载逻辑，在首个调用方线程中执行
+     * @return 加载结果
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inflight.putIfAbsent(key, mine);
+        if (existing != null) {
+            shared.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 当前进行中的加载数
+     */
+    public int inflightCount() {
+        return inflight.size();
+    }
+
+    /**
+     * 实际执行加载的次数
+     */
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    /**
+     * 共享他人结果的次数
+     */
+    public long sharedCount() {
+        return shared.sum();
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待合并请求结果时被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+}
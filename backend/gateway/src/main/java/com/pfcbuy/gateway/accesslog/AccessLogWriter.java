@@ -0,0 +1,139 @@
+package com.pfcbuy.gateway.accesslog;
+
+import com.pfcbuy.gateway.entity.ApiAccessLog;
+import com.pfcbuy.gateway.mapper.ApiAccessLogMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 访问日志异步批量写入器
+ * <p>
+ * 请求线程只把日志放入有界环形缓冲区（非阻塞），缓冲区满时直接丢弃并计数，
+ * 不会对请求产生背压。后台线程按批次或刷新间隔将日志以多行INSERT写入 t_api_access_log。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+public class AccessLogWriter {
+
+    private final ApiAccessLogMapper apiAccessLogMapper;
+
+    private final BlockingQueue<ApiAccessLog> buffer;
+
+    private final int batchSize;
+
+    private final long flushIntervalMillis;
+
+    private final LongAdder accepted = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder written = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+
+    private Thread worker;
+
+    public AccessLogWriter(ApiAccessLogMapper apiAccessLogMapper,
+                           @Value("${access-log.buffer-size:10000}") int bufferSize,
+                           @Value("${access-log.batch-size:200}") int batchSize,
+                           @Value("${access-log.flush-interval:1000}") long flushIntervalMillis) {
+        this.apiAccessLogMapper = apiAccessLogMapper;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "access-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("访问日志写入器启动: bufferSize={}, batchSize={}, flushInterval={}ms",
+                buffer.remainingCapacity(), batchSize, flushIntervalMillis);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // 不中断线程，避免打断进行中的批量写入；工作线程最多等待一个刷新间隔后退出
+        running = false;
+        worker.join(flushIntervalMillis + TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * 提交访问日志（非阻塞，缓冲区满时丢弃）
+     *
+     * @param accessLog 访问日志
+     */
+    public void submit(ApiAccessLog accessLog) {
+        if (buffer.offer(accessLog)) {
+            accepted.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void runLoop() {
+        List<ApiAccessLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ApiAccessLog first = buffer.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        // 停机前写完剩余日志
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<ApiAccessLog> batch) {
+        try {
+            apiAccessLogMapper.insertBatch(batch);
+            written.add(batch.size());
+        } catch (Exception e) {
+            failed.add(batch.size());
+            log.warn("访问日志批量写入失败，丢弃{}条: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * 写入统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("accepted", accepted.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("written", written.sum());
+        stats.put("failed", failed.sum());
+        stats.put("buffered", buffer.size());
+        return stats;
+    }
+}
@@ -0,0 +1,53 @@
+package com.pfcbuy.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.Map;
+
+/**
+ * 缓存的上游响应
+ *
+ * @param status HTTP状态码
+ * @param headers 响应头（仅表示层响应头，不含按请求设置的响应头）
+ * @param body 响应体
+ * @param createdAtMillis 缓存时间（毫秒时间戳）
+ * @param ttlMillis 有效期（毫秒）
+ * @param varyValues 响应Vary中各请求头在缓存时的取值（请求头名 -> 值，未携带为空串）
+ * @author PfcBuy Team
+ */
+public record CachedResponse(int status, HttpHeaders headers, byte[] body, long createdAtMillis, long ttlMillis,
+                             Map<String, String> varyValues) {
+
+    /**
+     * 请求头的取值，多个值以逗号连接，未携带为空串
+     */
+    public static String headerValue(HttpHeaders headers, String name) {
+        return String.join(",", headers.getOrEmpty(name));
+    }
+
+    /**
+     * 请求在Vary列出的请求头上与缓存时一致才可使用该缓存
+     */
+    public boolean matches(HttpHeaders requestHeaders) {
+        for (Map.Entry<String, String> entry : varyValues.entrySet()) {
+            if (!entry.getValue().equals(headerValue(requestHeaders, entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 估算占用字节数
+     */
+    public int weight() {
+        return body.length + 512;
+    }
+
+    /**
+     * 已缓存时长（秒），用于Age响应头
+     */
+    public long ageSeconds(long nowMillis) {
+        return Math.max(0L, (nowMillis - createdAtMillis) / 1000);
+    }
+}
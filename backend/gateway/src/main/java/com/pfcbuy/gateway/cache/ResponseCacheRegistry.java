@@ -0,0 +1,36 @@
+package com.pfcbuy.gateway.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 路由响应缓存注册中心
+ *
+ * @author PfcBuy Team
+ */
+@Component
+public class ResponseCacheRegistry {
+
+    private final Map<String, RouteResponseCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * 注册路由响应缓存（路由刷新时覆盖旧实例）
+     */
+    public RouteResponseCache register(String routeId, long maxBytes) {
+        RouteResponseCache cache = new RouteResponseCache(maxBytes);
+        caches.put(routeId, cache);
+        return cache;
+    }
+
+    /**
+     * 各路由缓存统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new TreeMap<>();
+        caches.forEach((routeId, cache) -> stats.put(routeId, cache.stats()));
+        return stats;
+    }
+}
@@ -0,0 +1,135 @@
+package com.pfcbuy.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.http.HttpHeaders;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单条路由的响应缓存
+ * <p>
+ * 按响应体大小加权、总容量受限，条目按各自TTL过期；同一Key并发未命中时只有一个请求访问上游，
+ * 其余请求等待其结果（请求合并）。
+ *
+ * @author PfcBuy Team
+ */
+public class RouteResponseCache {
+
+    private final Cache<String, CachedResponse> cache;
+
+    private final Map<String, CompletableFuture<CachedResponse>> inflight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder bypassed = new LongAdder();
+
+    private final LongAdder stored = new LongAdder();
+
+    public RouteResponseCache(long maxBytes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse value) -> key.length() + value.weight())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(value.ttlMillis());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return TimeUnit.MILLISECONDS.toNanos(value.ttlMillis());
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 查询缓存，命中时计数
+     *
+     * @param requestHeaders 请求头，与缓存响应的Vary值不一致时视为未命中
+     */
+    public CachedResponse get(String key, HttpHeaders requestHeaders) {
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached == null || !cached.matches(requestHeaders)) {
+            return null;
+        }
+        hits.increment();
+        return cached;
+    }
+
+    /**
+     * 写入缓存
+     */
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+        stored.increment();
+    }
+
+    /**
+     * 登记正在访问上游的请求
+     *
+     * @return 已有进行中的请求时返回其Future（调用方应等待），否则返回null（调用方成为首个请求）
+     */
+    public CompletableFuture<CachedResponse> joinInflight(String key, CompletableFuture<CachedResponse> mine) {
+        CompletableFuture<CachedResponse> existing = inflight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+        } else {
+            misses.increment();
+        }
+        return existing;
+    }
+
+    /**
+     * 首个请求结束，通知等待的请求
+     *
+     * @param response 可缓存的响应，不可缓存时为null（等待的请求各自访问上游）
+     */
+    public void completeInflight(String key, CompletableFuture<CachedResponse> mine, CachedResponse response) {
+        inflight.remove(key, mine);
+        mine.complete(response);
+    }
+
+    /**
+     * 记录未走缓存的请求
+     */
+    public void bypass() {
+        bypassed.increment();
+    }
+
+    /**
+     * 统计信息
+     */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long coalescedCount = coalesced.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + coalescedCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("coalesced", coalescedCount);
+        stats.put("misses", missCount);
+        stats.put("bypassed", bypassed.sum());
+        stats.put("stored", stored.sum());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) (hitCount + coalescedCount) / lookups);
+        stats.put("entries", cache.estimatedSize());
+        return stats;
+    }
+}
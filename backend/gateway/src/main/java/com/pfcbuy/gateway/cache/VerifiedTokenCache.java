@@ -0,0 +1,117 @@
+package com.pfcbuy.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验签Token缓存
+ * <p>
+ * 以Token的SHA-256摘要为Key缓存验签结果（用户ID + 过期时间），
+ * 同一会话的后续请求命中缓存后无需再次解析JWT和校验签名。
+ * 缓存条目在Token过期时自动失效，并受最大条目数和最长驻留时间限制。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    });
+
+    private static final Base64.Encoder KEY_ENCODER = Base64.getEncoder().withoutPadding();
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${auth.token-cache.max-size:100000}") long maxSize,
+                              @Value("${auth.token-cache.max-ttl:30m}") Duration maxTtl) {
+        long maxTtlNanos = maxTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long remainingMillis = value.expireAtMillis() - System.currentTimeMillis();
+                        return Math.min(maxTtlNanos, TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remainingMillis)));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        log.info("Token验签缓存初始化: maxSize={}, maxTtl={}", maxSize, maxTtl);
+    }
+
+    /**
+     * 获取已验签的Token信息
+     *
+     * @param token JWT token
+     * @return 未命中或已过期返回null
+     */
+    public VerifiedToken get(String token) {
+        VerifiedToken verified = cache.getIfPresent(hash(token));
+        if (verified == null || verified.expireAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return verified;
+    }
+
+    /**
+     * 缓存验签通过的Token
+     *
+     * @param token JWT token
+     * @param userId 用户ID
+     * @param expireAtMillis Token过期时间（毫秒时间戳）
+     */
+    public void put(String token, Long userId, long expireAtMillis) {
+        if (expireAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        cache.put(hash(token), new VerifiedToken(userId, expireAtMillis));
+    }
+
+    /**
+     * 当前缓存条目数（近似值）
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static String hash(String token) {
+        MessageDigest digest = SHA256.get();
+        byte[] bytes = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+        return KEY_ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * 验签结果
+     *
+     * @param userId 用户ID
+     * @param expireAtMillis Token过期时间（毫秒时间戳）
+     */
+    public record VerifiedToken(Long userId, long expireAtMillis) {
+    }
+}
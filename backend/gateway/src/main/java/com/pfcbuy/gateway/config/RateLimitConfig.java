@@ -1,11 +1,15 @@
 package com.pfcbuy.gateway.config;
 
+import com.pfcbuy.gateway.filter.AuthFilter;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.net.InetSocketAddress;
+
 /**
  * 限流配置
  *
@@ -14,28 +18,30 @@ import reactor.core.publisher.Mono;
 @Configuration
 public class RateLimitConfig {
 
+    private static final String UNKNOWN_IP = "unknown";
+
     /**
      * 基于IP的限流
      */
     @Bean
     @Primary
     public KeyResolver ipKeyResolver() {
-        return exchange -> Mono.just(
-                exchange.getRequest()
-                        .getRemoteAddress()
-                        .getAddress()
-                        .getHostAddress()
-        );
+        return exchange -> Mono.just(remoteIp(exchange));
     }
 
     /**
-     * 基于用户ID的限流（从请求头获取）
+     * 基于用户ID的限流
+     * <p>
+     * 只使用AuthFilter验证过的用户ID，不信任客户端传入的X-User-Id；未认证的请求按IP限流。
      */
     @Bean
     public KeyResolver userKeyResolver() {
         return exchange -> {
-            String userId = exchange.getRequest().getHeaders().getFirst("X-User-Id");
-            return Mono.just(userId != null ? userId : "anonymous");
+            Long userId = exchange.getAttribute(AuthFilter.USER_ID_ATTR);
+            if (userId != null) {
+                return Mono.just("user:" + userId);
+            }
+            return Mono.just("ip:" + remoteIp(exchange));
         };
     }
 
@@ -48,4 +54,15 @@ public class RateLimitConfig {
                 exchange.getRequest().getPath().toString()
         );
     }
+
+    /**
+     * 客户端IP，取不到远端地址时（如Unix Socket）归入同一个桶
+     */
+    private static String remoteIp(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return UNKNOWN_IP;
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
 }
@@ -0,0 +1,79 @@
+package com.pfcbuy.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 上游连接池配置
+ * <p>
+ * profiles 定义连接池档位，routes 把路由ID映射到档位；未映射的路由使用网关默认的共享连接池。
+ *
+ * @author PfcBuy Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.upstream")
+public class UpstreamPoolProperties {
+
+    /**
+     * 连接池档位：名称 -> 配置
+     */
+    private Map<String, Profile> profiles = new HashMap<>();
+
+    /**
+     * 路由ID -> 档位名称
+     */
+    private Map<String, String> routes = new HashMap<>();
+
+    /**
+     * 连接池档位
+     */
+    @Data
+    public static class Profile {
+
+        /**
+         * 最大连接数
+         */
+        private int maxConnections = 200;
+
+        /**
+         * 等待获取连接的最大排队数
+         */
+        private int pendingAcquireMaxCount = 400;
+
+        /**
+         * 获取连接的最长等待时间
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+        /**
+         * 空闲连接最长保留时间
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * 连接最长存活时间
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /**
+         * 后台清理空闲连接的间隔
+         */
+        private Duration evictInterval = Duration.ofSeconds(30);
+
+        /**
+         * 建立连接超时
+         */
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        /**
+         * 响应超时
+         */
+        private Duration responseTimeout = Duration.ofSeconds(10);
+    }
+}
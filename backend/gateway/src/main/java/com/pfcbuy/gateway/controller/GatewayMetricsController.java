@@ -0,0 +1,86 @@
+package com.pfcbuy.gateway.controller;
+
+import com.pfcbuy.common.result.Result;
+import com.pfcbuy.gateway.accesslog.AccessLogWriter;
+import com.pfcbuy.gateway.cache.ResponseCacheRegistry;
+import com.pfcbuy.gateway.metrics.RouteMetricsRegistry;
+import com.pfcbuy.gateway.upstream.UpstreamPoolRegistry;
+import com.pfcbuy.gateway.ratelimit.LocalRateLimiter;
+import com.pfcbuy.gateway.resilience.RouteIsolationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 网关运行指标Controller
+ *
+ * @author PfcBuy Team
+ */
+@RestController
+@RequestMapping("/actuator")
+@RequiredArgsConstructor
+public class GatewayMetricsController {
+
+    private final LocalRateLimiter localRateLimiter;
+
+    private final AccessLogWriter accessLogWriter;
+
+    private final RouteMetricsRegistry routeMetricsRegistry;
+
+    private final UpstreamPoolRegistry upstreamPoolRegistry;
+
+    private final RouteIsolationRegistry routeIsolationRegistry;
+
+    private final ResponseCacheRegistry responseCacheRegistry;
+
+    /**
+     * 各路由响应缓存命中率和条目数
+     */
+    @GetMapping("/response-cache")
+    public Result<Map<String, Object>> responseCache() {
+        return Result.success(responseCacheRegistry.stats());
+    }
+
+    /**
+     * 各路由熔断状态、并发数和拒绝次数
+     */
+    @GetMapping("/circuit-breakers")
+    public Result<Map<String, Object>> circuitBreakers() {
+        return Result.success(routeIsolationRegistry.stats());
+    }
+
+    /**
+     * 各路由延迟分布（p50/p90/p99）、错误率和在途请求数
+     */
+    @GetMapping("/routes")
+    public Result<Map<String, Object>> routes() {
+        return Result.success(routeMetricsRegistry.snapshot());
+    }
+
+    /**
+     * 上游连接池统计（连接数、排队数、获取连接耗时）
+     */
+    @GetMapping("/upstream-pools")
+    public Result<Map<String, Object>> upstreamPools() {
+        return Result.success(upstreamPoolRegistry.stats());
+    }
+
+    /**
+     * 限流统计
+     */
+    @GetMapping("/rate-limit")
+    public Result<Map<String, Object>> rateLimit() {
+        return Result.success(localRateLimiter.stats());
+    }
+
+    /**
+     * 访问日志写入统计
+     */
+    @GetMapping("/access-log")
+    public Result<Map<String, Object>> accessLog() {
+        return Result.success(accessLogWriter.stats());
+    }
+}
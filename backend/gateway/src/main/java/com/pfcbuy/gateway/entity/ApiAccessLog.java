@@ -17,6 +17,7 @@ public class ApiAccessLog {
     /**
      * 请求ID（链路追踪）
      */
+    @TableField("trace_id")
     private String requestId;
 
     /**
@@ -32,6 +33,7 @@ public class ApiAccessLog {
     /**
      * 请求路径
      */
+    @TableField("request_uri")
     private String requestPath;
 
     /**
@@ -52,6 +54,7 @@ public class ApiAccessLog {
     /**
      * 客户端IP
      */
+    @TableField("user_ip")
     private String clientIp;
 
     /**
@@ -59,6 +62,11 @@ public class ApiAccessLog {
      */
     private String userAgent;
 
+    /**
+     * 目标服务名（路由ID）
+     */
+    private String serviceName;
+
     /**
      * 创建时间
      */
@@ -3,6 +3,7 @@ package com.pfcbuy.gateway.exception;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pfcbuy.common.result.Result;
+import io.netty.handler.timeout.ReadTimeoutException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
@@ -17,6 +18,7 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 全局异常处理器
@@ -51,6 +53,9 @@ public class GlobalExceptionHandler implements ErrorWebExceptionHandler {
             ResponseStatusException rse = (ResponseStatusException) ex;
             status = (HttpStatus) rse.getStatusCode();
             result = Result.error(status.value(), rse.getReason());
+        } else if (ex instanceof ReadTimeoutException || ex instanceof TimeoutException) {
+            status = HttpStatus.GATEWAY_TIMEOUT;
+            result = Result.error(status.value(), "上游服务响应超时");
         } else {
             status = HttpStatus.INTERNAL_SERVER_ERROR;
             result = Result.error(status.value(), "网关内部错误");
@@ -0,0 +1,151 @@
+package com.pfcbuy.gateway.filter;
+
+import com.pfcbuy.gateway.accesslog.AccessLogWriter;
+import com.pfcbuy.gateway.entity.ApiAccessLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 访问日志全局过滤器
+ * <p>
+ * 请求结束时采集访问信息交给 {@link AccessLogWriter} 异步批量落库，请求线程上不做任何IO。
+ *
+ * @author PfcBuy Team
+ */
+@Component
+@RequiredArgsConstructor
+public class AccessLogFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 请求ID请求头
+     */
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    /**
+     * 以下长度与t_api_access_log的字段长度一致，超长会导致整批写入失败
+     */
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+
+    private static final int MAX_PATH_LENGTH = 500;
+
+    private static final int MAX_IP_LENGTH = 50;
+
+    private static final int MAX_PARAMS_LENGTH = 2000;
+
+    private static final int MAX_USER_AGENT_LENGTH = 500;
+
+    private final AccessLogWriter accessLogWriter;
+
+    @Value("${access-log.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        long startNanos = System.nanoTime();
+        String requestId = exchange.getRequest().getHeaders().getFirst(REQUEST_ID_HEADER);
+        if (!isValidRequestId(requestId)) {
+            // 客户端未传或传入的请求ID不合法时重新生成
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        exchange.getResponse().getHeaders().set(REQUEST_ID_HEADER, requestId);
+
+        String finalRequestId = requestId;
+        return chain.filter(exchange)
+                .doFinally(signal -> accessLogWriter.submit(buildLog(exchange, finalRequestId, startNanos, signal)));
+    }
+
+    private ApiAccessLog buildLog(ServerWebExchange exchange, String requestId, long startNanos, SignalType signal) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpHeaders headers = request.getHeaders();
+
+        ApiAccessLog accessLog = new ApiAccessLog();
+        accessLog.setRequestId(requestId);
+        // 只记录AuthFilter验证过的用户ID，客户端传入的X-User-Id可伪造
+        accessLog.setUserId(exchange.getAttribute(AuthFilter.USER_ID_ATTR));
+        accessLog.setRequestMethod(request.getMethod().name());
+        accessLog.setRequestPath(truncate(request.getPath().value(), MAX_PATH_LENGTH));
+        accessLog.setRequestParams(truncate(request.getURI().getRawQuery(), MAX_PARAMS_LENGTH));
+        accessLog.setResponseStatus(resolveStatus(exchange, signal));
+        accessLog.setResponseTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        accessLog.setClientIp(truncate(resolveClientIp(request), MAX_IP_LENGTH));
+        accessLog.setUserAgent(truncate(headers.getFirst(HttpHeaders.USER_AGENT), MAX_USER_AGENT_LENGTH));
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        accessLog.setServiceName(route != null ? route.getId() : null);
+        accessLog.setCreateTime(LocalDateTime.now());
+        return accessLog;
+    }
+
+    private Integer resolveStatus(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.ON_ERROR) {
+            return 500;
+        }
+        if (signal == SignalType.CANCEL) {
+            // 客户端断开
+            return 499;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null ? status.value() : 200;
+    }
+
+    private String resolveClientIp(ServerHttpRequest request) {
+        String forwarded = request.getHeaders().getFirst("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isEmpty()) {
+            int comma = forwarded.indexOf(',');
+            return (comma > 0 ? forwarded.substring(0, comma) : forwarded).trim();
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress() : null;
+    }
+
+    /**
+     * 请求ID只允许字母、数字和 - _ . :，且不超过字段长度
+     */
+    private static boolean isValidRequestId(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                    || c == '-' || c == '_' || c == '.' || c == ':')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength);
+    }
+
+    @Override
+    public int getOrder() {
+        // 最外层，统计完整耗时
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -1,6 +1,9 @@
 package com.pfcbuy.gateway.filter;
 
+import com.pfcbuy.common.constants.CommonConstants;
 import com.pfcbuy.common.utils.JwtUtil;
+import com.pfcbuy.common.utils.JwtVerifyResult;
+import com.pfcbuy.gateway.cache.VerifiedTokenCache;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -26,8 +29,17 @@ import java.util.List;
 @Data
 public class AuthFilter extends AbstractGatewayFilterFactory<Object> {
 
+    /**
+     * 认证通过后存放用户ID的exchange属性
+     */
+    public static final String USER_ID_ATTR = AuthFilter.class.getName() + ".userId";
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
     private List<String> skipUrls;
 
+    private volatile SkipUrlMatcher skipUrlMatcher = SkipUrlMatcher.compile(null);
+
     @Override
     public GatewayFilter apply(Object config) {
         return (exchange, chain) -> {
@@ -38,6 +50,13 @@ public class AuthFilter extends AbstractGatewayFilterFactory<Object> {
 
             // 检查是否需要跳过认证
             if (shouldSkipAuth(path)) {
+                // 免认证路径不允许客户端自带用户ID
+                if (request.getHeaders().containsKey(CommonConstants.USER_ID_HEADER)) {
+                    ServerHttpRequest strippedRequest = request.mutate()
+                            .headers(headers -> headers.remove(CommonConstants.USER_ID_HEADER))
+                            .build();
+                    return chain.filter(exchange.mutate().request(strippedRequest).build());
+                }
                 return chain.filter(exchange);
             }
 
@@ -52,23 +71,16 @@ public class AuthFilter extends AbstractGatewayFilterFactory<Object> {
 
             // 验证Token
             try {
-                // 只验证token是否有效和未过期，不验证用户名
-                if (JwtUtil.isTokenExpired(token)) {
-                    log.warn("Token已过期，路径: {}", path);
-                    response.setStatusCode(HttpStatus.UNAUTHORIZED);
-                    return response.setComplete();
-                }
-
-                // 从Token中提取用户ID，并添加到请求头
-                Long userId = JwtUtil.getUserIdFromToken(token);
+                Long userId = resolveUserId(token);
                 if (userId == null) {
-                    log.warn("无法从Token中提取用户ID，路径: {}", path);
+                    log.warn("Token无效或已过期，路径: {}", path);
                     response.setStatusCode(HttpStatus.UNAUTHORIZED);
                     return response.setComplete();
                 }
 
+                exchange.getAttributes().put(USER_ID_ATTR, userId);
                 ServerHttpRequest mutatedRequest = request.mutate()
-                        .header("X-User-Id", userId.toString())
+                        .header(CommonConstants.USER_ID_HEADER, userId.toString())
                         .build();
 
                 return chain.filter(exchange.mutate().request(mutatedRequest).build());
@@ -82,26 +94,40 @@ public class AuthFilter extends AbstractGatewayFilterFactory<Object> {
     }
 
     /**
-     * 检查是否应该跳过认证
+     * 验证Token并提取用户ID（优先命中验签缓存）
+     *
+     * @return 用户ID，Token无效或已过期时返回null
      */
-    private boolean shouldSkipAuth(String path) {
-        if (skipUrls == null || skipUrls.isEmpty()) {
-            return false;
+    private Long resolveUserId(String token) {
+        VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.get(token);
+        if (verified != null) {
+            return verified.userId();
+        }
+
+        // 只解析一次，失败时返回具体原因
+        JwtVerifyResult result = JwtUtil.verifier().verify(token);
+        if (!result.isValid()) {
+            log.debug("Token验证失败: {}", result.getReason().getDescription());
+            return null;
         }
 
-        return skipUrls.stream()
-                .anyMatch(pattern -> matchPath(pattern, path));
+        verifiedTokenCache.put(token, result.getUserId(), result.getExpiration().getTime());
+        return result.getUserId();
     }
 
     /**
-     * 路径匹配（支持通配符）
+     * 设置免认证路径，并在绑定配置时编译为匹配器
      */
-    private boolean matchPath(String pattern, String path) {
-        if (pattern.endsWith("/**")) {
-            String prefix = pattern.substring(0, pattern.length() - 3);
-            return path.startsWith(prefix);
-        }
-        return pattern.equals(path);
+    public void setSkipUrls(List<String> skipUrls) {
+        this.skipUrlMatcher = SkipUrlMatcher.compile(skipUrls);
+        this.skipUrls = skipUrls;
+    }
+
+    /**
+     * 检查是否应该跳过认证
+     */
+    private boolean shouldSkipAuth(String path) {
+        return skipUrlMatcher.matches(path);
     }
 
     /**
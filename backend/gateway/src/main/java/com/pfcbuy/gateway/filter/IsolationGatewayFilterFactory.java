@@ -0,0 +1,164 @@
+package com.pfcbuy.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pfcbuy.common.result.Result;
+import com.pfcbuy.gateway.resilience.Bulkhead;
+import com.pfcbuy.gateway.resilience.CircuitBreaker;
+import com.pfcbuy.gateway.resilience.RouteIsolation;
+import com.pfcbuy.gateway.resilience.RouteIsolationRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+
+/**
+ * 下游服务隔离过滤器：并发隔离舱 + 滑动窗口熔断
+ * <p>
+ * 并发数超限或熔断打开时立即返回降级响应（503），不占用上游连接。
+ * 路由配置示例：
+ * <pre>
+ * filters:
+ *   - name: Isolation
+ *     args:
+ *       max-concurrent-calls: 100
+ *       failure-rate-threshold: 50
+ * </pre>
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+public class IsolationGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<IsolationGatewayFilterFactory.Config> {
+
+    /**
+     * 降级原因响应头
+     */
+    public static final String FALLBACK_HEADER = "X-Fallback-Reason";
+
+    private final RouteIsolationRegistry routeIsolationRegistry;
+
+    private final ObjectMapper objectMapper;
+
+    public IsolationGatewayFilterFactory(RouteIsolationRegistry routeIsolationRegistry, ObjectMapper objectMapper) {
+        super(Config.class);
+        this.routeIsolationRegistry = routeIsolationRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Bulkhead bulkhead = new Bulkhead(config.getMaxConcurrentCalls());
+        CircuitBreaker circuitBreaker = new CircuitBreaker(config.getFailureRateThreshold(), config.getMinimumCalls(),
+                config.getWindowSeconds(), config.getWaitDurationInOpen().toMillis(), config.getPermittedHalfOpenCalls());
+        RouteIsolation isolation = routeIsolationRegistry.register(config.getRouteId(), bulkhead, circuitBreaker);
+
+        return (exchange, chain) -> {
+            if (!bulkhead.tryAcquire()) {
+                isolation.getBulkheadRejected().increment();
+                return fallback(exchange, config, "bulkhead-full");
+            }
+            if (!circuitBreaker.tryAcquire(System.currentTimeMillis())) {
+                bulkhead.release();
+                isolation.getCircuitRejected().increment();
+                return fallback(exchange, config, "circuit-open");
+            }
+
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        bulkhead.release();
+                        recordOutcome(circuitBreaker, exchange, signal);
+                    });
+        };
+    }
+
+    private void recordOutcome(CircuitBreaker circuitBreaker, ServerWebExchange exchange, SignalType signal) {
+        long now = System.currentTimeMillis();
+        if (signal == SignalType.CANCEL) {
+            circuitBreaker.onIgnored();
+            return;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+            circuitBreaker.onFailure(now);
+        } else {
+            circuitBreaker.onSuccess(now);
+        }
+    }
+
+    private Mono<Void> fallback(ServerWebExchange exchange, Config config, String reason) {
+        log.debug("路由降级: routeId={}, reason={}", config.getRouteId(), reason);
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(FALLBACK_HEADER, reason);
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(
+                    Result.error(HttpStatus.SERVICE_UNAVAILABLE.value(), config.getFallbackMessage()));
+        } catch (JsonProcessingException e) {
+            body = new byte[0];
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * 隔离配置
+     */
+    @Data
+    public static class Config implements HasRouteId {
+
+        /**
+         * 路由ID（由网关自动注入）
+         */
+        private String routeId;
+
+        /**
+         * 最大并发请求数
+         */
+        private int maxConcurrentCalls = 200;
+
+        /**
+         * 失败率阈值（百分比）
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * 窗口内最少调用次数
+         */
+        private int minimumCalls = 20;
+
+        /**
+         * 滑动窗口长度（秒）
+         */
+        private int windowSeconds = 10;
+
+        /**
+         * 熔断打开持续时间
+         */
+        private Duration waitDurationInOpen = Duration.ofSeconds(10);
+
+        /**
+         * 半开状态试探请求数
+         */
+        private int permittedHalfOpenCalls = 5;
+
+        /**
+         * 降级提示信息
+         */
+        private String fallbackMessage = "服务繁忙，请稍后重试";
+    }
+}
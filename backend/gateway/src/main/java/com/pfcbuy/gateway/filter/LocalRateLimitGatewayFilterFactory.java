@@ -0,0 +1,97 @@
+package com.pfcbuy.gateway.filter;
+
+import com.pfcbuy.gateway.ratelimit.LocalRateLimiter;
+import com.pfcbuy.gateway.ratelimit.RouteRateLimiter;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 本地令牌桶限流过滤器
+ * <p>
+ * 路由配置示例：
+ * <pre>
+ * filters:
+ *   - name: LocalRateLimit
+ *     args:
+ *       key-resolver: ipKeyResolver
+ *       replenish-rate: 50
+ *       burst-capacity: 100
+ * </pre>
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+public class LocalRateLimitGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<LocalRateLimitGatewayFilterFactory.Config> {
+
+    private static final String ANONYMOUS_KEY = "anonymous";
+
+    private final LocalRateLimiter localRateLimiter;
+
+    private final Map<String, KeyResolver> keyResolvers;
+
+    public LocalRateLimitGatewayFilterFactory(LocalRateLimiter localRateLimiter, Map<String, KeyResolver> keyResolvers) {
+        super(Config.class);
+        this.localRateLimiter = localRateLimiter;
+        this.keyResolvers = keyResolvers;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        KeyResolver keyResolver = keyResolvers.get(config.getKeyResolver());
+        if (keyResolver == null) {
+            throw new IllegalArgumentException("未找到限流KeyResolver: " + config.getKeyResolver());
+        }
+        RouteRateLimiter limiter = localRateLimiter.getLimiter(
+                config.getRouteId(), config.getReplenishRate(), config.getBurstCapacity());
+
+        return (exchange, chain) -> keyResolver.resolve(exchange)
+                .defaultIfEmpty(ANONYMOUS_KEY)
+                .flatMap(key -> {
+                    if (limiter.tryAcquire(key)) {
+                        return chain.filter(exchange);
+                    }
+                    log.debug("请求被限流: routeId={}, key={}", config.getRouteId(), key);
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                    return response.setComplete();
+                });
+    }
+
+    /**
+     * 限流配置
+     */
+    @Data
+    public static class Config implements HasRouteId {
+
+        /**
+         * 路由ID（由网关自动注入）
+         */
+        private String routeId;
+
+        /**
+         * KeyResolver的Bean名称：ipKeyResolver / userKeyResolver / apiKeyResolver
+         */
+        private String keyResolver = "ipKeyResolver";
+
+        /**
+         * 每秒补充的令牌数
+         */
+        private double replenishRate = 100;
+
+        /**
+         * 令牌桶容量（允许的突发请求数）
+         */
+        private int burstCapacity = 200;
+    }
+}
@@ -0,0 +1,337 @@
+package com.pfcbuy.gateway.filter;
+
+import com.pfcbuy.gateway.cache.CachedResponse;
+import com.pfcbuy.gateway.cache.ResponseCacheRegistry;
+import com.pfcbuy.gateway.cache.RouteResponseCache;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 匿名接口响应缓存过滤器
+ * <p>
+ * 缓存未携带认证信息的GET（可配置幂等POST）请求的200响应，遵循请求/响应的Cache-Control，
+ * 并发未命中时合并为一次上游调用。应放在路由过滤器列表的最前面（StripPrefix之前），
+ * 使命中缓存的请求不再经过限流、熔断和上游连接。
+ * <p>
+ * 只缓存表示层响应头（Content-Type、ETag等），请求ID、CORS等按请求设置的响应头命中时由各自的过滤器重新设置；
+ * 带Set-Cookie或 {@code Vary: *} 的响应不缓存，其他Vary列出的请求头取值不一致时不使用缓存。
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       paths: /api/product/platforms
+ *       ttl: 60s
+ * </pre>
+ *
+ * @author PfcBuy Team
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    /**
+     * 缓存命中情况响应头：HIT / MISS
+     */
+    public static final String CACHE_HEADER = "X-Cache";
+
+    /**
+     * 随缓存保存并在命中时回放的响应头
+     */
+    private static final List<String> STORED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.CACHE_CONTROL);
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    });
+
+    private final ResponseCacheRegistry responseCacheRegistry;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheRegistry responseCacheRegistry) {
+        super(Config.class);
+        this.responseCacheRegistry = responseCacheRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        SkipUrlMatcher pathMatcher = SkipUrlMatcher.compile(config.getPaths());
+        boolean allPaths = config.getPaths() == null || config.getPaths().isEmpty();
+        RouteResponseCache cache = responseCacheRegistry.register(config.getRouteId(), config.getMaxBytes());
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            HttpMethod method = request.getMethod();
+            if (!config.getMethods().contains(method.name())
+                    || !(allPaths || pathMatcher.matches(request.getPath().value()))
+                    || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+                    || noCacheRequested(request.getHeaders())) {
+                cache.bypass();
+                return chain.filter(exchange);
+            }
+
+            String baseKey = method.name() + " " + request.getURI().getRawPath()
+                    + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : "");
+            if (method != HttpMethod.POST) {
+                return lookup(exchange, chain, cache, config, baseKey);
+            }
+
+            // 幂等POST：以请求体摘要区分缓存Key
+            return ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange, cachedRequest -> {
+                DataBuffer body = exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+                String bodyDigest = body == null ? "" : sha256Hex(
+                        body.toString(body.readPosition(), body.readableByteCount(), StandardCharsets.UTF_8));
+                return lookup(exchange.mutate().request(cachedRequest).build(), chain, cache, config,
+                        baseKey + "#" + bodyDigest);
+            });
+        };
+    }
+
+    private Mono<Void> lookup(ServerWebExchange exchange, GatewayFilterChain chain,
+                              RouteResponseCache cache, Config config, String key) {
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        CachedResponse cached = cache.get(key, requestHeaders);
+        if (cached != null) {
+            return writeCached(exchange, cached);
+        }
+
+        CompletableFuture<CachedResponse> mine = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> leader = cache.joinInflight(key, mine);
+        if (leader != null) {
+            // 同一Key已有请求在访问上游，等待其结果；结果不可缓存时自行访问上游
+            return Mono.fromFuture(leader)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(result -> result.isPresent() && result.get().matches(requestHeaders)
+                            ? writeCached(exchange, result.get())
+                            : chain.filter(exchange));
+        }
+
+        CachingResponseDecorator decorator = new CachingResponseDecorator(exchange.getResponse(), requestHeaders,
+                cache, config, key);
+        return chain.filter(exchange.mutate().response(decorator).build())
+                .doFinally(signal -> cache.completeInflight(key, mine, decorator.getCachedResponse()));
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+        response.getHeaders().putAll(cached.headers());
+        for (String name : cached.varyValues().keySet()) {
+            if (!varyContains(response.getHeaders(), name)) {
+                response.getHeaders().add(HttpHeaders.VARY, name);
+            }
+        }
+        response.getHeaders().set(CACHE_HEADER, "HIT");
+        response.getHeaders().set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds(System.currentTimeMillis())));
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static String sha256Hex(String value) {
+        return HexFormat.of().formatHex(SHA256.get().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static boolean varyContains(HttpHeaders headers, String name) {
+        for (String vary : headers.getVary()) {
+            if (vary.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean noCacheRequested(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            String value = cacheControl.toLowerCase(Locale.ROOT);
+            if (value.contains("no-cache") || value.contains("no-store")) {
+                return true;
+            }
+        }
+        String pragma = headers.getPragma();
+        return pragma != null && pragma.toLowerCase(Locale.ROOT).contains("no-cache");
+    }
+
+    /**
+     * 根据响应头计算缓存时长
+     *
+     * @return 不可缓存时返回-1
+     */
+    private static long cacheTtlMillis(HttpStatusCode status, HttpHeaders headers, long defaultTtlMillis) {
+        if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || headers.getVary().contains("*")) {
+            return -1L;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return defaultTtlMillis;
+        }
+
+        long ttl = defaultTtlMillis;
+        long sharedMaxAge = -1L;
+        for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            String d = directive.trim();
+            if (d.equals("no-store") || d.equals("no-cache") || d.equals("private")) {
+                return -1L;
+            }
+            if (d.startsWith("s-maxage=")) {
+                sharedMaxAge = parseSeconds(d.substring("s-maxage=".length()));
+            } else if (d.startsWith("max-age=")) {
+                long maxAge = parseSeconds(d.substring("max-age=".length()));
+                if (maxAge >= 0) {
+                    ttl = Math.min(ttl, maxAge * 1000);
+                }
+            }
+        }
+        if (sharedMaxAge >= 0) {
+            ttl = Math.min(defaultTtlMillis, sharedMaxAge * 1000);
+        }
+        return ttl > 0 ? ttl : -1L;
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * 捕获可缓存响应体的装饰器
+     */
+    private static class CachingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final HttpHeaders requestHeaders;
+
+        private final RouteResponseCache cache;
+
+        private final Config config;
+
+        private final String key;
+
+        private volatile CachedResponse cachedResponse;
+
+        CachingResponseDecorator(ServerHttpResponse delegate, HttpHeaders requestHeaders,
+                                 RouteResponseCache cache, Config config, String key) {
+            super(delegate);
+            this.requestHeaders = requestHeaders;
+            this.cache = cache;
+            this.config = config;
+            this.key = key;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long ttl = cacheTtlMillis(getStatusCode(), getHeaders(), config.getTtl().toMillis());
+            if (ttl <= 0) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        if (bytes.length <= config.getMaxBodyBytes()) {
+                            HttpHeaders headers = new HttpHeaders();
+                            for (String name : STORED_HEADERS) {
+                                List<String> values = getHeaders().get(name);
+                                if (values != null) {
+                                    headers.put(name, values);
+                                }
+                            }
+                            Map<String, String> varyValues = new LinkedHashMap<>();
+                            for (String name : getHeaders().getVary()) {
+                                varyValues.put(name, CachedResponse.headerValue(requestHeaders, name));
+                            }
+                            CachedResponse response = new CachedResponse(getStatusCode().value(), headers, bytes,
+                                    System.currentTimeMillis(), ttl, varyValues);
+                            cache.put(key, response);
+                            cachedResponse = response;
+                        }
+                        getHeaders().set(CACHE_HEADER, "MISS");
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        CachedResponse getCachedResponse() {
+            return cachedResponse;
+        }
+    }
+
+    /**
+     * 响应缓存配置
+     */
+    @Data
+    public static class Config implements HasRouteId {
+
+        /**
+         * 路由ID（由网关自动注入）
+         */
+        private String routeId;
+
+        /**
+         * 需要缓存的路径（支持 /** 和 * 通配），为空时缓存路由下所有路径
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * 可缓存的请求方法（POST仅适用于幂等接口，按请求体区分缓存）
+         */
+        private List<String> methods = new ArrayList<>(List.of("GET"));
+
+        /**
+         * 默认缓存时长（响应的max-age更短时以其为准）
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * 缓存总容量（字节）
+         */
+        private long maxBytes = 32L * 1024 * 1024;
+
+        /**
+         * 单个响应体最大字节数，超过不缓存
+         */
+        private int maxBodyBytes = 256 * 1024;
+    }
+}
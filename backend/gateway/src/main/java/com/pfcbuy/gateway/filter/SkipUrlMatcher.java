@@ -0,0 +1,215 @@
+package com.pfcbuy.gateway.filter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 免认证路径匹配器
+ * <p>
+ * 启动时将 auth.skip-urls 编译为精确匹配集合 + 按路径段组织的前缀树，
+ * 请求时逐段查找，不分配对象，耗时只与路径段数相关、与规则数量无关。
+ * <ul>
+ *     <li>{@code /api/auth/login}：精确匹配</li>
+ *     <li>{@code /api/webhook/**}：匹配 /api/webhook 本身及其下任意层级路径</li>
+ *     <li>{@code /api/product/*&#47;detail}：{@code *} 匹配任意一个非空路径段</li>
+ * </ul>
+ *
+ * @author PfcBuy Team
+ */
+public final class SkipUrlMatcher {
+
+    private static final SkipUrlMatcher EMPTY = new SkipUrlMatcher(Collections.emptySet(), null);
+
+    private static final String ANY_PATH = "**";
+
+    private static final String ANY_SEGMENT = "*";
+
+    private final Set<String> exactPaths;
+
+    private final Node root;
+
+    private SkipUrlMatcher(Set<String> exactPaths, Node root) {
+        this.exactPaths = exactPaths;
+        this.root = root;
+    }
+
+    /**
+     * 编译路径规则
+     *
+     * @param patterns 路径规则列表
+     * @return 匹配器
+     * @throws IllegalArgumentException 规则格式不支持
+     */
+    public static SkipUrlMatcher compile(List<String> patterns) {
+        if (patterns == null || patterns.isEmpty()) {
+            return EMPTY;
+        }
+
+        Set<String> exactPaths = new HashSet<>();
+        Builder root = null;
+        for (String raw : patterns) {
+            String pattern = raw == null ? "" : raw.trim();
+            if (!pattern.startsWith("/")) {
+                throw new IllegalArgumentException("免认证路径必须以/开头: " + raw);
+            }
+            if (!pattern.contains(ANY_SEGMENT)) {
+                exactPaths.add(pattern);
+                continue;
+            }
+
+            if (root == null) {
+                root = new Builder();
+            }
+            String[] segments = pattern.substring(1).split("/", -1);
+            Builder node = root;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (ANY_PATH.equals(segment)) {
+                    if (i != segments.length - 1) {
+                        throw new IllegalArgumentException("/**只能出现在路径末尾: " + raw);
+                    }
+                    node.matchAll = true;
+                    break;
+                }
+                if (ANY_SEGMENT.equals(segment)) {
+                    if (node.wildcard == null) {
+                        node.wildcard = new Builder();
+                    }
+                    node = node.wildcard;
+                } else if (segment.contains(ANY_SEGMENT)) {
+                    throw new IllegalArgumentException("*只能匹配完整路径段: " + raw);
+                } else {
+                    node = node.children.computeIfAbsent(segment, k -> new Builder());
+                }
+                if (i == segments.length - 1) {
+                    node.terminal = true;
+                }
+            }
+        }
+        return new SkipUrlMatcher(exactPaths, root == null ? null : root.build());
+    }
+
+    /**
+     * 判断路径是否命中任一规则
+     *
+     * @param path 请求路径
+     * @return true-命中 false-未命中
+     */
+    public boolean matches(String path) {
+        if (path == null || path.isEmpty()) {
+            return false;
+        }
+        if (exactPaths.contains(path)) {
+            return true;
+        }
+        return root != null && path.charAt(0) == '/' && matches(root, path, 1);
+    }
+
+    /**
+     * 逐段匹配
+     *
+     * @param start 当前路径段起始下标，-1表示路径已匹配完
+     */
+    private static boolean matches(Node node, String path, int start) {
+        if (node.matchAll) {
+            return true;
+        }
+        if (start < 0) {
+            return node.terminal;
+        }
+
+        int slash = path.indexOf('/', start);
+        int end = slash < 0 ? path.length() : slash;
+        int next = slash < 0 ? -1 : slash + 1;
+
+        Node child = node.child(path, start, end);
+        if (child != null && matches(child, path, next)) {
+            return true;
+        }
+        return node.wildcard != null && end > start && matches(node.wildcard, path, next);
+    }
+
+    /**
+     * 编译后的前缀树节点（开放寻址表存储子节点）
+     */
+    private static final class Node {
+
+        private final String[] keys;
+
+        private final Node[] children;
+
+        private final int mask;
+
+        private final Node wildcard;
+
+        private final boolean terminal;
+
+        private final boolean matchAll;
+
+        private Node(String[] keys, Node[] children, Node wildcard, boolean terminal, boolean matchAll) {
+            this.keys = keys;
+            this.children = children;
+            this.mask = keys.length - 1;
+            this.wildcard = wildcard;
+            this.terminal = terminal;
+            this.matchAll = matchAll;
+        }
+
+        private Node child(String path, int start, int end) {
+            if (keys.length == 0) {
+                return null;
+            }
+            int length = end - start;
+            // 与String.hashCode一致的算法，直接在原路径上计算，避免substring
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + path.charAt(i);
+            }
+            for (int i = spread(h) & mask; keys[i] != null; i = (i + 1) & mask) {
+                String key = keys[i];
+                if (key.length() == length && path.regionMatches(start, key, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 编译期可变节点
+     */
+    private static final class Builder {
+
+        private final Map<String, Builder> children = new HashMap<>();
+
+        private Builder wildcard;
+
+        private boolean terminal;
+
+        private boolean matchAll;
+
+        private Node build() {
+            // 负载因子不超过0.5，保证探测链很短
+            int capacity = children.isEmpty() ? 0 : Integer.highestOneBit(children.size() * 2 - 1) << 1;
+            String[] keys = new String[capacity];
+            Node[] nodes = new Node[capacity];
+            for (Map.Entry<String, Builder> entry : children.entrySet()) {
+                int i = spread(entry.getKey().hashCode()) & (capacity - 1);
+                while (keys[i] != null) {
+                    i = (i + 1) & (capacity - 1);
+                }
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+            }
+            return new Node(keys, nodes, wildcard == null ? null : wildcard.build(), terminal, matchAll);
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
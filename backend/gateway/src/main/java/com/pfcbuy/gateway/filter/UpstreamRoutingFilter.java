@@ -0,0 +1,41 @@
+package com.pfcbuy.gateway.filter;
+
+import com.pfcbuy.gateway.upstream.UpstreamPoolRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * 按路由选择上游连接池的路由过滤器
+ * <p>
+ * 替代网关内置的NettyRoutingFilter（需配置 spring.cloud.gateway.global-filter.netty-routing.enabled=false），
+ * 配置了连接池档位的路由使用独立的HttpClient，其余路由沿用默认HttpClient。
+ *
+ * @author PfcBuy Team
+ */
+@Component
+public class UpstreamRoutingFilter extends NettyRoutingFilter {
+
+    private final UpstreamPoolRegistry upstreamPoolRegistry;
+
+    public UpstreamRoutingFilter(HttpClient httpClient,
+                                 ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                 HttpClientProperties properties,
+                                 UpstreamPoolRegistry upstreamPoolRegistry) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.upstreamPoolRegistry = upstreamPoolRegistry;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient routeClient = upstreamPoolRegistry.getHttpClient(route.getId());
+        return routeClient != null ? routeClient : super.getHttpClient(route, exchange);
+    }
+}
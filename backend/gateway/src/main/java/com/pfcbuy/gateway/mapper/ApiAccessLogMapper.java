@@ -3,10 +3,21 @@ package com.pfcbuy.gateway.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.pfcbuy.gateway.entity.ApiAccessLog;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * API访问日志Mapper
  */
 @Mapper
 public interface ApiAccessLogMapper extends BaseMapper<ApiAccessLog> {
+
+    /**
+     * 批量插入访问日志（单条多行INSERT）
+     *
+     * @param logs 访问日志列表
+     * @return 影响行数
+     */
+    int insertBatch(@Param("logs") List<ApiAccessLog> logs);
 }
@@ -0,0 +1,85 @@
+package com.pfcbuy.gateway.metrics;
+
+import com.pfcbuy.common.metrics.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单条路由的请求指标
+ * <p>
+ * 按状态码类别（1xx~5xx）分别维护滚动延迟直方图，另有累计请求数和在途请求数。
+ *
+ * @author PfcBuy Team
+ */
+public class RouteMetrics {
+
+    private static final String[] STATUS_CLASSES = {"unknown", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[STATUS_CLASSES.length];
+
+    private final LongAdder[] totals = new LongAdder[STATUS_CLASSES.length];
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public RouteMetrics(int slotCount, long slotMillis) {
+        for (int i = 0; i < STATUS_CLASSES.length; i++) {
+            histograms[i] = new LatencyHistogram(slotCount, slotMillis);
+            totals[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 请求开始
+     */
+    public void start() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * 请求结束
+     *
+     * @param status HTTP状态码
+     * @param micros 耗时（微秒）
+     */
+    public void finish(int status, long micros) {
+        inFlight.decrementAndGet();
+        int statusClass = status >= 100 && status < 600 ? status / 100 : 0;
+        histograms[statusClass].record(micros, System.currentTimeMillis());
+        totals[statusClass].increment();
+    }
+
+    /**
+     * 指标快照
+     */
+    public Map<String, Object> snapshot() {
+        long now = System.currentTimeMillis();
+        long total = 0;
+        long errors = 0;
+        Map<String, Object> byStatus = new LinkedHashMap<>();
+        for (int i = 0; i < STATUS_CLASSES.length; i++) {
+            long classTotal = totals[i].sum();
+            if (classTotal == 0) {
+                continue;
+            }
+            total += classTotal;
+            if (i == 5 || i == 0) {
+                errors += classTotal;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("total", classTotal);
+            stats.put("window", histograms[i].snapshot(now));
+            byStatus.put(STATUS_CLASSES[i], stats);
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("inFlight", inFlight.get());
+        snapshot.put("total", total);
+        snapshot.put("errorRate", total == 0 ? 0.0 : (double) errors / total);
+        snapshot.put("windowSeconds", histograms[0].windowMillis() / 1000);
+        snapshot.put("byStatus", byStatus);
+        return snapshot;
+    }
+}
@@ -0,0 +1,45 @@
+package com.pfcbuy.gateway.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 路由指标注册中心
+ *
+ * @author PfcBuy Team
+ */
+@Component
+public class RouteMetricsRegistry {
+
+    private final Map<String, RouteMetrics> metrics = new ConcurrentHashMap<>();
+
+    @Value("${route-metrics.slot-count:6}")
+    private int slotCount;
+
+    @Value("${route-metrics.slot-millis:10000}")
+    private long slotMillis;
+
+    /**
+     * 获取路由指标，不存在时创建
+     */
+    public RouteMetrics get(String routeId) {
+        RouteMetrics routeMetrics = metrics.get(routeId);
+        if (routeMetrics != null) {
+            return routeMetrics;
+        }
+        return metrics.computeIfAbsent(routeId, id -> new RouteMetrics(slotCount, slotMillis));
+    }
+
+    /**
+     * 所有路由的指标快照（按路由ID排序）
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        metrics.forEach((routeId, routeMetrics) -> snapshot.put(routeId, routeMetrics.snapshot()));
+        return snapshot;
+    }
+}
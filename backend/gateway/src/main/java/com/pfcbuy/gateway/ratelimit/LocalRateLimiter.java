@@ -0,0 +1,137 @@
+package com.pfcbuy.gateway.ratelimit;
+
+import com.pfcbuy.common.constants.RedisConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内限流器注册中心
+ * <p>
+ * 限流判断完全在本地完成，不访问Redis。开启 rate-limit.redis-sync.enabled 后，
+ * 定时把各令牌桶的放行次数批量累加到Redis，当某个Key在集群内的总量超过窗口配额时，
+ * 本地在窗口剩余时间内直接拒绝，从而实现集群级的近似公平。Redis不可用时退化为单机限流。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocalRateLimiter {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    private final Map<String, RouteRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    private final LongAdder syncFailures = new LongAdder();
+
+    @Value("${rate-limit.max-keys-per-route:100000}")
+    private long maxKeysPerRoute;
+
+    @Value("${rate-limit.idle-timeout:10m}")
+    private Duration idleTimeout;
+
+    @Value("${rate-limit.redis-sync.enabled:false}")
+    private boolean redisSyncEnabled;
+
+    @Value("${rate-limit.redis-sync.window-seconds:1}")
+    private long windowSeconds;
+
+    @Value("${rate-limit.redis-sync.timeout:500ms}")
+    private Duration syncTimeout;
+
+    /**
+     * 获取路由限流器，配置变化时重新创建
+     */
+    public RouteRateLimiter getLimiter(String routeId, double replenishRate, int burstCapacity) {
+        return limiters.compute(routeId, (id, existing) -> {
+            if (existing != null && existing.sameConfig(replenishRate, burstCapacity)) {
+                return existing;
+            }
+            log.info("创建路由限流器: routeId={}, replenishRate={}, burstCapacity={}", id, replenishRate, burstCapacity);
+            return new RouteRateLimiter(id, replenishRate, burstCapacity, maxKeysPerRoute, idleTimeout);
+        });
+    }
+
+    /**
+     * 批量同步放行次数到Redis
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.redis-sync.interval:1000}")
+    public void syncToRedis() {
+        if (!redisSyncEnabled || limiters.isEmpty()) {
+            return;
+        }
+
+        long nowMillis = System.currentTimeMillis();
+        long windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        long windowId = nowMillis / windowMillis;
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos((windowId + 1) * windowMillis - nowMillis);
+
+        List<PendingSync> pending = new ArrayList<>();
+        for (RouteRateLimiter limiter : limiters.values()) {
+            long windowQuota = (long) (limiter.getReplenishRate() * windowSeconds) + limiter.getBurstCapacity();
+            limiter.forEachBucket((key, bucket) -> {
+                long delta = bucket.drainUnsynced();
+                if (delta > 0) {
+                    String redisKey = RedisConstants.RATE_LIMIT_KEY + limiter.getRouteId() + ":" + key + ":" + windowId;
+                    pending.add(new PendingSync(redisKey, delta, windowQuota, bucket));
+                }
+            });
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Duration keyTtl = Duration.ofSeconds(windowSeconds * 2);
+        Flux.fromIterable(pending)
+                .flatMap(sync -> redisTemplate.opsForValue().increment(sync.redisKey(), sync.delta())
+                        .flatMap(total -> (total == sync.delta()
+                                ? redisTemplate.expire(sync.redisKey(), keyTtl)
+                                : Mono.just(Boolean.TRUE))
+                                .thenReturn(total))
+                        .doOnNext(total -> {
+                            if (total > sync.windowQuota()) {
+                                sync.bucket().blockUntil(System.nanoTime() + remainingNanos);
+                            }
+                        }))
+                .then()
+                .timeout(syncTimeout)
+                .onErrorResume(e -> {
+                    syncFailures.increment();
+                    log.warn("限流计数同步Redis失败，使用本地限流: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+    }
+
+    /**
+     * 各路由限流统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> routes = new LinkedHashMap<>();
+        limiters.forEach((routeId, limiter) -> routes.put(routeId, limiter.stats()));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("redisSyncEnabled", redisSyncEnabled);
+        stats.put("redisSyncFailures", syncFailures.sum());
+        stats.put("routes", routes);
+        return stats;
+    }
+
+    private record PendingSync(String redisKey, long delta, long windowQuota, TokenBucket bucket) {
+    }
+}
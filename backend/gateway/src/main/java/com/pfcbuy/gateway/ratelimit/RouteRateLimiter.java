@@ -0,0 +1,93 @@
+package com.pfcbuy.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * 单条路由的限流器
+ * <p>
+ * 每个限流Key（IP、用户ID或路径）一个令牌桶，长时间未访问的Key自动淘汰。
+ *
+ * @author PfcBuy Team
+ */
+public class RouteRateLimiter {
+
+    @Getter
+    private final String routeId;
+
+    @Getter
+    private final double replenishRate;
+
+    @Getter
+    private final int burstCapacity;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final LongAdder allowed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    public RouteRateLimiter(String routeId, double replenishRate, int burstCapacity, long maxKeys, Duration idleTimeout) {
+        if (replenishRate <= 0 || burstCapacity <= 0) {
+            throw new IllegalArgumentException("限流速率和突发容量必须大于0: " + routeId);
+        }
+        this.routeId = routeId;
+        this.replenishRate = replenishRate;
+        this.burstCapacity = burstCapacity;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    /**
+     * 尝试为指定Key获取令牌
+     *
+     * @param key 限流Key
+     * @return true-放行 false-拒绝
+     */
+    public boolean tryAcquire(String key) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(replenishRate, burstCapacity, now));
+        if (bucket.tryAcquire(now)) {
+            allowed.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * 遍历当前所有令牌桶
+     */
+    public void forEachBucket(BiConsumer<String, TokenBucket> action) {
+        buckets.asMap().forEach(action);
+    }
+
+    /**
+     * 是否与给定配置一致
+     */
+    public boolean sameConfig(double replenishRate, int burstCapacity) {
+        return this.replenishRate == replenishRate && this.burstCapacity == burstCapacity;
+    }
+
+    /**
+     * 统计信息
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replenishRate", replenishRate);
+        stats.put("burstCapacity", burstCapacity);
+        stats.put("allowed", allowed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("activeKeys", buckets.estimatedSize());
+        return stats;
+    }
+}
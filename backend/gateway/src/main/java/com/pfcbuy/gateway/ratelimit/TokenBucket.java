@@ -0,0 +1,83 @@
+package com.pfcbuy.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶
+ * <p>
+ * 采用GCRA（通用信元速率算法）实现：只维护一个"理论到达时间"，
+ * 每次获取令牌一次CAS即可完成，与经典令牌桶的放行效果等价。
+ *
+ * @author PfcBuy Team
+ */
+public class TokenBucket {
+
+    /**
+     * 生成一个令牌的间隔（纳秒）
+     */
+    private final long emissionIntervalNanos;
+
+    /**
+     * 允许的突发容忍度（纳秒）
+     */
+    private final long burstToleranceNanos;
+
+    /**
+     * 理论到达时间（纳秒）
+     */
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * 尚未同步到Redis的放行次数
+     */
+    private final AtomicLong unsynced = new AtomicLong();
+
+    /**
+     * 集群限流生效截止时间（纳秒），由Redis同步任务设置
+     */
+    private volatile long blockedUntilNanos;
+
+    public TokenBucket(double replenishRate, int burstCapacity, long nowNanos) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / replenishRate);
+        this.burstToleranceNanos = emissionIntervalNanos * burstCapacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+        this.blockedUntilNanos = nowNanos;
+    }
+
+    /**
+     * 尝试获取一个令牌
+     *
+     * @param nowNanos 当前时间（System.nanoTime）
+     * @return true-放行 false-拒绝
+     */
+    public boolean tryAcquire(long nowNanos) {
+        if (blockedUntilNanos - nowNanos > 0) {
+            return false;
+        }
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long newTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            if (newTat - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                unsynced.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 取出并清零未同步的放行次数
+     */
+    public long drainUnsynced() {
+        return unsynced.getAndSet(0L);
+    }
+
+    /**
+     * 集群总量超限时，在本地拒绝请求直到指定时间
+     */
+    public void blockUntil(long untilNanos) {
+        this.blockedUntilNanos = untilNanos;
+    }
+}
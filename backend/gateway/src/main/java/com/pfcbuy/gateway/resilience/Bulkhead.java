@@ -0,0 +1,51 @@
+package com.pfcbuy.gateway.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并发隔离舱：限制单条路由的最大在途请求数
+ *
+ * @author PfcBuy Team
+ */
+public class Bulkhead {
+
+    private final int maxConcurrentCalls;
+
+    private final AtomicInteger activeCalls = new AtomicInteger();
+
+    public Bulkhead(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    /**
+     * 尝试占用一个并发名额
+     *
+     * @return true-成功 false-已满
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = activeCalls.get();
+            if (current >= maxConcurrentCalls) {
+                return false;
+            }
+            if (activeCalls.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 释放并发名额
+     */
+    public void release() {
+        activeCalls.decrementAndGet();
+    }
+
+    public int getActiveCalls() {
+        return activeCalls.get();
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+}
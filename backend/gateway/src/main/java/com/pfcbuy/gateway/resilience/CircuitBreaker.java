@@ -0,0 +1,198 @@
+package com.pfcbuy.gateway.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 基于滑动时间窗口的熔断器
+ * <ul>
+ *     <li>CLOSED：统计窗口内失败率，达到阈值后打开</li>
+ *     <li>OPEN：直接拒绝，等待时间结束后进入半开</li>
+ *     <li>HALF_OPEN：放行少量试探请求，全部成功则关闭，任一失败则重新打开</li>
+ * </ul>
+ *
+ * @author PfcBuy Team
+ */
+public class CircuitBreaker {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureRateThreshold;
+
+    private final int minimumCalls;
+
+    private final long waitDurationMillis;
+
+    private final int permittedHalfOpenCalls;
+
+    private final Bucket[] buckets;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+
+    private volatile long openedAtMillis;
+
+    /**
+     * @param failureRateThreshold 失败率阈值（百分比）
+     * @param minimumCalls 窗口内最少调用次数，达到后才计算失败率
+     * @param windowSeconds 滑动窗口长度（秒）
+     * @param waitDurationMillis 打开状态持续时间（毫秒）
+     * @param permittedHalfOpenCalls 半开状态允许的试探请求数
+     */
+    public CircuitBreaker(int failureRateThreshold, int minimumCalls, int windowSeconds,
+                          long waitDurationMillis, int permittedHalfOpenCalls) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.waitDurationMillis = waitDurationMillis;
+        this.permittedHalfOpenCalls = permittedHalfOpenCalls;
+        this.buckets = new Bucket[windowSeconds];
+        for (int i = 0; i < windowSeconds; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * 是否允许请求通过
+     */
+    public boolean tryAcquire(long nowMillis) {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (nowMillis - openedAtMillis < waitDurationMillis) {
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                halfOpenSuccesses.set(0);
+                halfOpenPermits.set(permittedHalfOpenCalls);
+            }
+        }
+        return state.get() == State.HALF_OPEN && halfOpenPermits.getAndDecrement() > 0;
+    }
+
+    /**
+     * 记录成功调用
+     */
+    public void onSuccess(long nowMillis) {
+        if (state.get() == State.HALF_OPEN) {
+            if (halfOpenSuccesses.incrementAndGet() >= permittedHalfOpenCalls
+                    && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                resetWindow();
+            }
+            return;
+        }
+        bucket(nowMillis).total.incrementAndGet();
+    }
+
+    /**
+     * 记录失败调用
+     */
+    public void onFailure(long nowMillis) {
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            open(State.HALF_OPEN, nowMillis);
+            return;
+        }
+        if (current == State.OPEN) {
+            return;
+        }
+
+        Bucket bucket = bucket(nowMillis);
+        bucket.total.incrementAndGet();
+        bucket.failures.incrementAndGet();
+
+        long[] counts = windowCounts(nowMillis);
+        long total = counts[0];
+        long failures = counts[1];
+        if (total >= minimumCalls && failures * 100 >= (long) failureRateThreshold * total) {
+            open(State.CLOSED, nowMillis);
+        }
+    }
+
+    /**
+     * 调用被取消（如客户端断开），不计入统计，半开状态下归还试探名额
+     */
+    public void onIgnored() {
+        if (state.get() == State.HALF_OPEN) {
+            halfOpenPermits.incrementAndGet();
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * 窗口内失败率（百分比）
+     */
+    public double failureRate(long nowMillis) {
+        long[] counts = windowCounts(nowMillis);
+        return counts[0] == 0 ? 0.0 : counts[1] * 100.0 / counts[0];
+    }
+
+    private void open(State expected, long nowMillis) {
+        if (state.compareAndSet(expected, State.OPEN)) {
+            openedAtMillis = nowMillis;
+        }
+    }
+
+    private void resetWindow() {
+        for (Bucket bucket : buckets) {
+            bucket.reset(-1L);
+        }
+    }
+
+    private Bucket bucket(long nowMillis) {
+        long second = nowMillis / 1000;
+        Bucket bucket = buckets[(int) (second % buckets.length)];
+        if (bucket.epoch != second) {
+            bucket.reset(second);
+        }
+        return bucket;
+    }
+
+    private long[] windowCounts(long nowMillis) {
+        long second = nowMillis / 1000;
+        long total = 0;
+        long failures = 0;
+        for (Bucket bucket : buckets) {
+            long epoch = bucket.epoch;
+            if (epoch > second - buckets.length && epoch <= second) {
+                total += bucket.total.get();
+                failures += bucket.failures.get();
+            }
+        }
+        return new long[]{total, failures};
+    }
+
+    /**
+     * 每秒一个统计桶
+     */
+    private static final class Bucket {
+
+        private final AtomicLong total = new AtomicLong();
+
+        private final AtomicLong failures = new AtomicLong();
+
+        private volatile long epoch = -1L;
+
+        private synchronized void reset(long newEpoch) {
+            if (newEpoch >= 0 && epoch == newEpoch) {
+                return;
+            }
+            total.set(0L);
+            failures.set(0L);
+            epoch = newEpoch;
+        }
+    }
+}
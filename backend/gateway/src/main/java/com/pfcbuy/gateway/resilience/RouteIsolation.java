@@ -0,0 +1,43 @@
+package com.pfcbuy.gateway.resilience;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单条路由的隔离组件：并发隔离舱 + 熔断器
+ *
+ * @author PfcBuy Team
+ */
+@Getter
+public class RouteIsolation {
+
+    private final Bulkhead bulkhead;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final LongAdder bulkheadRejected = new LongAdder();
+
+    private final LongAdder circuitRejected = new LongAdder();
+
+    public RouteIsolation(Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * 统计信息
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", circuitBreaker.getState());
+        stats.put("failureRate", circuitBreaker.failureRate(System.currentTimeMillis()));
+        stats.put("activeCalls", bulkhead.getActiveCalls());
+        stats.put("maxConcurrentCalls", bulkhead.getMaxConcurrentCalls());
+        stats.put("bulkheadRejected", bulkheadRejected.sum());
+        stats.put("circuitRejected", circuitRejected.sum());
+        return stats;
+    }
+}
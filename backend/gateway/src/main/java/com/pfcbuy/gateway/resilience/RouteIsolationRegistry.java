@@ -0,0 +1,39 @@
+package com.pfcbuy.gateway.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 路由隔离组件注册中心
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+public class RouteIsolationRegistry {
+
+    private final Map<String, RouteIsolation> isolations = new ConcurrentHashMap<>();
+
+    /**
+     * 注册路由隔离组件（路由刷新时覆盖旧实例）
+     */
+    public RouteIsolation register(String routeId, Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+        RouteIsolation isolation = new RouteIsolation(bulkhead, circuitBreaker);
+        isolations.put(routeId, isolation);
+        log.info("注册路由隔离: routeId={}, maxConcurrentCalls={}", routeId, bulkhead.getMaxConcurrentCalls());
+        return isolation;
+    }
+
+    /**
+     * 各路由熔断与隔离状态
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new TreeMap<>();
+        isolations.forEach((routeId, isolation) -> stats.put(routeId, isolation.stats()));
+        return stats;
+    }
+}
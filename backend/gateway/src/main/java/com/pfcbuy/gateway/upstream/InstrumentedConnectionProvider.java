@@ -0,0 +1,91 @@
+package com.pfcbuy.gateway.upstream;
+
+import com.pfcbuy.common.metrics.LatencyHistogram;
+import io.netty.resolver.AddressResolverGroup;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.TransportConfig;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 记录获取连接耗时的ConnectionProvider装饰器
+ *
+ * @author PfcBuy Team
+ */
+public class InstrumentedConnectionProvider implements ConnectionProvider {
+
+    private final ConnectionProvider delegate;
+
+    private final LatencyHistogram acquireLatency;
+
+    private final LongAdder acquireErrors = new LongAdder();
+
+    public InstrumentedConnectionProvider(ConnectionProvider delegate, LatencyHistogram acquireLatency) {
+        this.delegate = delegate;
+        this.acquireLatency = acquireLatency;
+    }
+
+    @Override
+    public Mono<? extends Connection> acquire(TransportConfig config,
+                                              ConnectionObserver connectionObserver,
+                                              Supplier<? extends SocketAddress> remoteAddress,
+                                              AddressResolverGroup<?> resolverGroup) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return delegate.acquire(config, connectionObserver, remoteAddress, resolverGroup)
+                    .doOnSuccess(connection -> acquireLatency.record(
+                            TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos),
+                            System.currentTimeMillis()))
+                    .doOnError(e -> acquireErrors.increment());
+        });
+    }
+
+    /**
+     * 获取连接失败次数（排队超时、排队已满等）
+     */
+    public long acquireErrors() {
+        return acquireErrors.sum();
+    }
+
+    @Override
+    public void disposeWhen(SocketAddress address) {
+        delegate.disposeWhen(address);
+    }
+
+    @Override
+    public void dispose() {
+        delegate.dispose();
+    }
+
+    @Override
+    public Mono<Void> disposeLater() {
+        return delegate.disposeLater();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return delegate.isDisposed();
+    }
+
+    @Override
+    public int maxConnections() {
+        return delegate.maxConnections();
+    }
+
+    @Override
+    public Map<SocketAddress, Integer> maxConnectionsPerHost() {
+        return delegate.maxConnectionsPerHost();
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+}
@@ -0,0 +1,140 @@
+package com.pfcbuy.gateway.upstream;
+
+import com.pfcbuy.common.metrics.LatencyHistogram;
+import com.pfcbuy.gateway.config.UpstreamPoolProperties;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 按档位隔离的上游连接池
+ * <p>
+ * 每个档位一个独立的ConnectionProvider和HttpClient，慢服务只会耗尽自己的连接池，
+ * 不会拖垮其他路由。连接池状态和获取连接耗时可通过 /actuator/upstream-pools 查看。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpstreamPoolRegistry {
+
+    private final UpstreamPoolProperties properties;
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        properties.getProfiles().forEach((name, profile) -> {
+            pools.put(name, createPool(name, profile));
+            log.info("创建上游连接池: profile={}, maxConnections={}, pendingAcquireMaxCount={}, responseTimeout={}",
+                    name, profile.getMaxConnections(), profile.getPendingAcquireMaxCount(), profile.getResponseTimeout());
+        });
+        properties.getRoutes().forEach((routeId, profile) -> {
+            if (!pools.containsKey(profile)) {
+                throw new IllegalStateException("路由 " + routeId + " 引用了不存在的连接池档位: " + profile);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        pools.values().forEach(pool -> pool.provider().dispose());
+    }
+
+    /**
+     * 获取路由专用的HttpClient
+     *
+     * @param routeId 路由ID
+     * @return 未配置档位时返回null（使用网关默认连接池）
+     */
+    public HttpClient getHttpClient(String routeId) {
+        String profile = properties.getRoutes().get(routeId);
+        if (profile == null) {
+            return null;
+        }
+        Pool pool = pools.get(profile);
+        return pool != null ? pool.httpClient() : null;
+    }
+
+    /**
+     * 各连接池统计
+     */
+    public Map<String, Object> stats() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        pools.forEach((name, pool) -> {
+            UpstreamPoolProperties.Profile profile = properties.getProfiles().get(name);
+            List<String> routes = properties.getRoutes().entrySet().stream()
+                    .filter(entry -> name.equals(entry.getValue()))
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            Map<String, Object> hosts = new LinkedHashMap<>();
+            pool.hostMetrics().forEach((address, metrics) -> {
+                Map<String, Object> host = new LinkedHashMap<>();
+                host.put("acquired", metrics.acquiredSize());
+                host.put("idle", metrics.idleSize());
+                host.put("allocated", metrics.allocatedSize());
+                host.put("pendingAcquire", metrics.pendingAcquireSize());
+                hosts.put(String.valueOf(address), host);
+            });
+
+            Map<String, Object> poolStats = new LinkedHashMap<>();
+            poolStats.put("routes", routes);
+            poolStats.put("maxConnections", profile.getMaxConnections());
+            poolStats.put("pendingAcquireMaxCount", profile.getPendingAcquireMaxCount());
+            poolStats.put("acquireErrors", pool.provider().acquireErrors());
+            poolStats.put("acquireLatency", pool.acquireLatency().snapshot(now));
+            poolStats.put("hosts", hosts);
+            stats.put(name, poolStats);
+        });
+        return stats;
+    }
+
+    private Pool createPool(String name, UpstreamPoolProperties.Profile profile) {
+        Map<SocketAddress, ConnectionPoolMetrics> hostMetrics = new ConcurrentHashMap<>();
+        ConnectionProvider.MeterRegistrar registrar =
+                (poolName, id, remoteAddress, metrics) -> hostMetrics.put(remoteAddress, metrics);
+
+        ConnectionProvider delegate = ConnectionProvider.builder("upstream-" + name)
+                .maxConnections(profile.getMaxConnections())
+                .pendingAcquireMaxCount(profile.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(profile.getPendingAcquireTimeout())
+                .maxIdleTime(profile.getMaxIdleTime())
+                .maxLifeTime(profile.getMaxLifeTime())
+                .evictInBackground(profile.getEvictInterval())
+                .metrics(true, () -> registrar)
+                .build();
+
+        LatencyHistogram acquireLatency = new LatencyHistogram(6, 10_000L);
+        InstrumentedConnectionProvider provider = new InstrumentedConnectionProvider(delegate, acquireLatency);
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) profile.getConnectTimeout().toMillis())
+                .responseTimeout(profile.getResponseTimeout())
+                .keepAlive(true);
+
+        return new Pool(provider, httpClient, acquireLatency, hostMetrics);
+    }
+
+    private record Pool(InstrumentedConnectionProvider provider,
+                        HttpClient httpClient,
+                        LatencyHistogram acquireLatency,
+                        Map<SocketAddress, ConnectionPoolMetrics> hostMetrics) {
+    }
+}
@@ -2,6 +2,7 @@ package com.pfcbuy.logistics.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.pfcbuy.common.exception.BusinessException;
+import com.pfcbuy.common.id.IdGenerator;
 import com.pfcbuy.logistics.dto.*;
 import com.pfcbuy.logistics.entity.ShippingOrder;
 import com.pfcbuy.logistics.entity.ShippingRoute;
@@ -38,6 +39,7 @@ public class LogisticsServiceImpl implements LogisticsService {
     private final ShippingRouteMapper shippingRouteMapper;
     private final TrackingInfoMapper trackingInfoMapper;
     private final TrackingService trackingService;
+    private final IdGenerator idGenerator;
     
     /**
      * 体积重系数（默认5000）
@@ -304,7 +306,7 @@ public class LogisticsServiceImpl implements LogisticsService {
      * 生成物流订单号
      */
     private String generateShippingOrderNo() {
-        return "SH" + System.currentTimeMillis() + (int)(Math.random() * 1000);
+        return idGenerator.nextNo("SH");
     }
     
     /**
@@ -0,0 +1,212 @@
+package com.pfcbuy.order.cache;
+
+import com.pfcbuy.common.constants.RedisConstants;
+import com.pfcbuy.order.dto.OrderResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 订单详情缓存
+ * <p>
+ * 按订单ID读穿缓存完整的 {@link OrderResponse}，订单号只缓存到订单ID的映射。
+ * 每个订单有一个版本号，写操作提交后递增版本并删除缓存；
+ * 读操作加载前记录版本，回填时版本已变化则放弃，避免并发写入期间读到的旧数据被写回缓存。
+ * Redis异常时直接读数据库。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+public class OrderCache {
+
+    private static final String DETAIL_KEY = RedisConstants.ORDER_KEY;
+
+    private static final String VERSION_KEY = RedisConstants.ORDER_KEY + "version:";
+
+    private static final String ORDER_NO_KEY = RedisConstants.ORDER_KEY + "no:";
+
+    /**
+     * 版本号保留时间，只需覆盖一次数据库加载的耗时
+     */
+    private static final long VERSION_EXPIRE_MILLIS = TimeUnit.SECONDS.toMillis(RedisConstants.ORDER_EXPIRE * 2);
+
+    /**
+     * 版本未变化时写入缓存：KEYS[1]=详情 KEYS[2]=版本 ARGV[1]=加载前的版本 ARGV[2]=值 ARGV[3]=过期毫秒数
+     */
+    private static final RedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('get', KEYS[2]) or '') ~= ARGV[1] then return 0 end "
+                    + "redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) "
+                    + "return 1",
+            Long.class);
+
+    /**
+     * 递增版本并删除缓存：KEYS成对传入（详情, 版本），ARGV[1]=版本过期毫秒数
+     */
+    private static final RedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS, 2 do "
+                    + "redis.call('del', KEYS[i]) "
+                    + "redis.call('incr', KEYS[i + 1]) "
+                    + "redis.call('pexpire', KEYS[i + 1], ARGV[1]) "
+                    + "end "
+                    + "return #KEYS / 2",
+            Long.class);
+
+    private static final RedisSerializer<Long> RESULT_SERIALIZER = new GenericToStringSerializer<>(Long.class);
+
+    private static final int INVALIDATE_BATCH_SIZE = 200;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public OrderCache(RedisTemplate<String, Object> redisTemplate, StringRedisTemplate stringRedisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * 读穿获取订单详情
+     *
+     * @param orderId 订单ID
+     * @param loader 缓存未命中时从数据库加载，返回null表示不存在
+     * @return 订单详情，不存在返回null
+     */
+    public OrderResponse get(Long orderId, Supplier<OrderResponse> loader) {
+        String detailKey = DETAIL_KEY + orderId;
+        String versionKey = VERSION_KEY + orderId;
+        String version;
+        try {
+            Object cached = redisTemplate.opsForValue().get(detailKey);
+            if (cached instanceof OrderResponse response) {
+                return response;
+            }
+            String current = stringRedisTemplate.opsForValue().get(versionKey);
+            version = current == null ? "" : current;
+        } catch (Exception e) {
+            log.warn("读取订单缓存失败: orderId={}, error={}", orderId, e.getMessage());
+            return loader.get();
+        }
+
+        OrderResponse response = loader.get();
+        if (response == null) {
+            return null;
+        }
+        try {
+            byte[] value = serializeValue(response);
+            redisTemplate.execute(PUT_SCRIPT, RedisSerializer.byteArray(), RESULT_SERIALIZER,
+                    Arrays.asList(detailKey, versionKey),
+                    version.getBytes(StandardCharsets.UTF_8), value,
+                    toBytes(TimeUnit.SECONDS.toMillis(RedisConstants.ORDER_EXPIRE)));
+        } catch (Exception e) {
+            log.warn("写入订单缓存失败: orderId={}, error={}", orderId, e.getMessage());
+        }
+        return response;
+    }
+
+    /**
+     * 根据订单号获取订单ID
+     *
+     * @param orderNo 订单号
+     * @return 未缓存返回null
+     */
+    public Long getOrderId(String orderNo) {
+        try {
+            Object orderId = redisTemplate.opsForValue().get(ORDER_NO_KEY + orderNo);
+            return orderId instanceof Long id ? id : null;
+        } catch (Exception e) {
+            log.warn("读取订单号映射失败: orderNo={}, error={}", orderNo, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 缓存订单号到订单ID的映射（不会变化，无需失效）
+     *
+     * @param orderNo 订单号
+     * @param orderId 订单ID
+     */
+    public void putOrderId(String orderNo, Long orderId) {
+        try {
+            redisTemplate.opsForValue().set(ORDER_NO_KEY + orderNo, orderId,
+                    RedisConstants.ORDER_EXPIRE, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入订单号映射失败: orderNo={}, error={}", orderNo, e.getMessage());
+        }
+    }
+
+    /**
+     * 失效订单缓存
+     * <p>
+     * 存在事务时在提交后执行，否则立即执行。
+     *
+     * @param orderIds 订单ID
+     */
+    public void invalidate(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = new ArrayList<>(orderIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doInvalidate(ids);
+                }
+            });
+        } else {
+            doInvalidate(orderIds);
+        }
+    }
+
+    /**
+     * 失效单个订单缓存
+     *
+     * @param orderId 订单ID
+     */
+    public void invalidate(Long orderId) {
+        invalidate(List.of(orderId));
+    }
+
+    private void doInvalidate(Collection<Long> orderIds) {
+        List<Long> ids = new ArrayList<>(orderIds);
+        for (int from = 0; from < ids.size(); from += INVALIDATE_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + INVALIDATE_BATCH_SIZE, ids.size()));
+            List<String> keys = new ArrayList<>(batch.size() * 2);
+            for (Long orderId : batch) {
+                keys.add(DETAIL_KEY + orderId);
+                keys.add(VERSION_KEY + orderId);
+            }
+            try {
+                redisTemplate.execute(INVALIDATE_SCRIPT, RedisSerializer.byteArray(), RESULT_SERIALIZER,
+                        keys, toBytes(VERSION_EXPIRE_MILLIS));
+            } catch (Exception e) {
+                log.error("失效订单缓存失败，缓存将在过期后更新: orderIds={}", batch, e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serializeValue(OrderResponse response) {
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(response);
+    }
+
+    private static byte[] toBytes(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,41 @@
+package com.pfcbuy.order.config;
+
+import com.pfcbuy.common.redis.CompactRedisSerializer;
+import com.pfcbuy.order.dto.OrderResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * Redis配置
+ *
+ * @author PfcBuy Team
+ */
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory,
+                                                       @Value("${redis.serializer.compress-threshold:1024}") int compressThreshold) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(factory);
+
+        // value使用紧凑二进制格式，类型编号注册后不可修改；非紧凑格式的数据按JSON解析
+        CompactRedisSerializer serializer = new CompactRedisSerializer(new GenericJackson2JsonRedisSerializer(), compressThreshold)
+                .register(16, OrderResponse.class);
+
+        StringRedisSerializer stringSerializer = new StringRedisSerializer();
+
+        template.setKeySerializer(stringSerializer);
+        template.setHashKeySerializer(stringSerializer);
+        template.setValueSerializer(serializer);
+        template.setHashValueSerializer(serializer);
+
+        template.afterPropertiesSet();
+        return template;
+    }
+}
@@ -0,0 +1,38 @@
+package com.pfcbuy.order.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 商品快照并发查询线程池配置
+ *
+ * @author PfcBuy Team
+ */
+@Configuration
+public class SnapshotFetchConfig {
+
+    /**
+     * 商品快照查询线程池
+     * <p>
+     * 队列满时拒绝任务（调用方快速失败），不在请求线程上执行，避免绕过查询超时。
+     */
+    @Bean
+    public ThreadPoolTaskExecutor snapshotFetchExecutor(
+            @Value("${business.order.snapshot-fetch.threads:32}") int threads,
+            @Value("${business.order.snapshot-fetch.queue-size:256}") int queueSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueSize);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("snapshot-fetch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,7 +1,9 @@
 package com.pfcbuy.order.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.pfcbuy.common.page.CursorPage;
 import com.pfcbuy.common.result.Result;
+import com.pfcbuy.order.dto.BatchUpdateStatusRequest;
 import com.pfcbuy.order.dto.CreateOrderRequest;
 import com.pfcbuy.order.dto.OrderQueryRequest;
 import com.pfcbuy.order.dto.OrderResponse;
@@ -65,6 +67,16 @@ public class OrderController {
         return Result.success(page);
     }
 
+    /**
+     * 游标分页查询订单列表
+     */
+    @GetMapping("/scroll")
+    public Result<CursorPage<OrderResponse>> scrollOrders(OrderQueryRequest request) {
+        log.info("游标查询订单列表: {}", request);
+        CursorPage<OrderResponse> page = orderService.scrollOrders(request);
+        return Result.success(page);
+    }
+
     /**
      * 取消订单
      */
@@ -76,6 +88,17 @@ public class OrderController {
         return Result.success(success);
     }
 
+    /**
+     * 取消已支付订单并退款
+     */
+    @PostMapping("/{orderId}/cancel-paid")
+    public Result<Boolean> cancelPaidOrder(@PathVariable Long orderId,
+                                           @RequestParam String reason) {
+        log.info("取消已支付订单，订单ID: {}, 原因: {}", orderId, reason);
+        boolean success = orderService.cancelPaidOrder(orderId, reason);
+        return Result.success(success);
+    }
+
     /**
      * 更新订单状态
      */
@@ -87,13 +110,26 @@ public class OrderController {
         return Result.success(success);
     }
 
+    /**
+     * 批量更新订单状态
+     */
+    @PutMapping("/status/batch")
+    public Result<Integer> batchUpdateOrderStatus(@RequestBody @Validated BatchUpdateStatusRequest request) {
+        log.info("批量更新订单状态，数量: {}, 状态: {}", request.getOrderIds().size(), request.getOrderStatus());
+        int updated = orderService.batchUpdateOrderStatus(request.getOrderIds(), request.getOrderStatus());
+        return Result.success(updated);
+    }
+
     /**
      * 支付成功回调（内部调用）
+     * <p>
+     * 支付服务失败会重试，重复通知是幂等的：订单已支付时同样返回true。
      */
     @PostMapping("/payment-callback")
     public Result<Boolean> paymentCallback(@RequestParam String orderNo, 
-                                           @RequestParam String paymentId) {
-        log.info("接收支付成功回调，订单号: {}, 支付ID: {}", orderNo, paymentId);
+                                           @RequestParam String paymentId,
+                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        log.info("接收支付成功回调，订单号: {}, 支付ID: {}, 幂等键: {}", orderNo, paymentId, idempotencyKey);
         boolean success = orderService.paymentSuccess(orderNo, paymentId);
         return Result.success(success);
     }
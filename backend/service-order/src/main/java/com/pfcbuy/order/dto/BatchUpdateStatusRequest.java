@@ -0,0 +1,30 @@
+package com.pfcbuy.order.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量更新订单状态请求
+ *
+ * @author PfcBuy Team
+ */
+@Data
+public class BatchUpdateStatusRequest {
+
+    /**
+     * 订单ID列表
+     */
+    @NotEmpty(message = "订单ID不能为空")
+    @Size(max = 1000, message = "单次最多更新1000个订单")
+    private List<Long> orderIds;
+
+    /**
+     * 目标订单状态
+     */
+    @NotBlank(message = "订单状态不能为空")
+    private String orderStatus;
+}
@@ -40,4 +40,9 @@ public class OrderQueryRequest {
      * 每页大小
      */
     private Integer pageSize = 10;
+
+    /**
+     * 游标（游标分页时使用，首页为空）
+     */
+    private String cursor;
 }
@@ -0,0 +1,22 @@
+package com.pfcbuy.order.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 支付记录DTO（用于Feign调用）
+ *
+ * @author PfcBuy Team
+ */
+@Data
+public class PaymentDTO {
+
+    private Long id;
+    private String paymentNo;
+    private String orderNo;
+    private String paymentChannel;
+    private BigDecimal amount;
+    private String currency;
+    private String status;
+}
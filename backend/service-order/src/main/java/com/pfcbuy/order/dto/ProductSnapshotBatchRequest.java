@@ -0,0 +1,23 @@
+package com.pfcbuy.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量查询商品快照请求DTO（用于Feign调用）
+ *
+ * @author PfcBuy Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSnapshotBatchRequest {
+
+    /**
+     * 快照ID列表（单次最多200个）
+     */
+    private List<Long> snapshotIds;
+}
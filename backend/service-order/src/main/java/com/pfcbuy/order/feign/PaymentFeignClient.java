@@ -0,0 +1,40 @@
+package com.pfcbuy.order.feign;
+
+import com.pfcbuy.common.result.Result;
+import com.pfcbuy.order.dto.PaymentDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.math.BigDecimal;
+
+/**
+ * 支付服务Feign客户端
+ *
+ * @author PfcBuy Team
+ */
+@FeignClient(name = "service-payment", url = "${service.payment.url:http://localhost:8082}", path = "/payment/payments")
+public interface PaymentFeignClient {
+
+    /**
+     * 查询订单最近一次支付记录
+     *
+     * @param orderNo 订单号
+     * @return 支付记录
+     */
+    @GetMapping("/order/{orderNo}")
+    Result<PaymentDTO> getPaymentByOrderNo(@PathVariable("orderNo") String orderNo);
+
+    /**
+     * 创建退款
+     *
+     * @param paymentId 支付ID
+     * @param refundAmount 退款金额
+     * @return 处理结果
+     */
+    @PostMapping("/{paymentId}/refund")
+    Result<Void> createRefund(@PathVariable("paymentId") Long paymentId,
+                              @RequestParam("refundAmount") BigDecimal refundAmount);
+}
@@ -1,10 +1,16 @@
 package com.pfcbuy.order.feign;
 
 import com.pfcbuy.common.result.Result;
+import com.pfcbuy.order.dto.ProductSnapshotBatchRequest;
 import com.pfcbuy.order.dto.ProductSnapshotDTO;
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Map;
 
 /**
  * 商品服务Feign客户端
@@ -23,4 +29,15 @@ public interface ProductFeignClient {
      */
     @GetMapping("/snapshot/{snapshotId}")
     Result<ProductSnapshotDTO> getProductSnapshot(@PathVariable("snapshotId") Long snapshotId);
+
+    /**
+     * 批量查询商品快照
+     *
+     * @param request 快照ID列表
+     * @param options 本次调用的连接/读取超时
+     * @return 快照ID -> 商品快照，不存在的快照不返回
+     */
+    @PostMapping("/snapshots/batch")
+    Result<Map<Long, ProductSnapshotDTO>> getProductSnapshots(@RequestBody ProductSnapshotBatchRequest request,
+                                                              Request.Options options);
 }
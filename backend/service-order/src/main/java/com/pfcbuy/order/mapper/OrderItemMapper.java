@@ -5,6 +5,7 @@ import com.pfcbuy.order.entity.OrderItem;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -24,6 +25,14 @@ public interface OrderItemMapper extends BaseMapper<OrderItem> {
      */
     List<OrderItem> selectByOrderId(@Param("orderId") Long orderId);
 
+    /**
+     * 根据订单ID批量查询订单项
+     *
+     * @param orderIds 订单ID集合（不能为空）
+     * @return 订单项列表，按订单ID、订单项ID排序
+     */
+    List<OrderItem> selectByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
     /**
      * 批量插入订单项
      *
@@ -5,6 +5,10 @@ import com.pfcbuy.order.entity.Order;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 订单Mapper
  *
@@ -23,20 +27,63 @@ public interface OrderMapper extends BaseMapper<Order> {
     Order selectByOrderNo(@Param("orderNo") String orderNo);
 
     /**
-     * 更新订单状态
+     * 更新支付状态
      *
      * @param id 订单ID
-     * @param orderStatus 订单状态
+     * @param payStatus 支付状态
      * @return 影响行数
      */
-    int updateOrderStatus(@Param("id") Long id, @Param("orderStatus") String orderStatus);
+    int updatePayStatus(@Param("id") Long id, @Param("payStatus") String payStatus);
 
     /**
-     * 更新支付状态
+     * 根据订单号查询订单ID
+     *
+     * @param orderNo 订单号
+     * @return 订单ID，不存在返回null
+     */
+    Long selectIdByOrderNo(@Param("orderNo") String orderNo);
+
+    /**
+     * 条件变更订单状态
+     * <p>
+     * 仅更新当前状态在fromStatuses内（且支付状态为payStatus，若指定）的订单，调用方需控制ID数量。
+     *
+     * @param orderIds 订单ID
+     * @param fromStatuses 允许的源状态
+     * @param toStatus 目标状态
+     * @param payStatus 要求的支付状态，null表示不限
+     * @param cancelReason 取消原因，仅目标状态为CANCELLED时使用
+     * @return 实际变更的订单数
+     */
+    int transitStatus(@Param("orderIds") Collection<Long> orderIds,
+                      @Param("fromStatuses") Collection<String> fromStatuses,
+                      @Param("toStatus") String toStatus,
+                      @Param("payStatus") String payStatus,
+                      @Param("cancelReason") String cancelReason);
+
+    /**
+     * 标记订单已支付（仅CREATED且UNPAID的订单）
      *
      * @param id 订单ID
-     * @param payStatus 支付状态
      * @return 影响行数
      */
-    int updatePayStatus(@Param("id") Long id, @Param("payStatus") String payStatus);
+    int markPaid(@Param("id") Long id);
+
+    /**
+     * 取消已支付订单并置为退款中（仅PAID、PURCHASING且已支付的订单）
+     *
+     * @param id 订单ID
+     * @param cancelReason 取消原因
+     * @return 影响行数
+     */
+    int cancelPaid(@Param("id") Long id, @Param("cancelReason") String cancelReason);
+
+    /**
+     * 查询已超时的未支付订单ID
+     *
+     * @param deadline 过期时间上限
+     * @param limit 最多返回数量
+     * @return 订单ID，按过期时间升序
+     */
+    List<Long> selectExpiredOrderIds(@Param("deadline") LocalDateTime deadline, @Param("limit") int limit);
 }
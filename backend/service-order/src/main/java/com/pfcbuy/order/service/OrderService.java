@@ -1,11 +1,14 @@
 package com.pfcbuy.order.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.pfcbuy.common.page.CursorPage;
 import com.pfcbuy.order.dto.CreateOrderRequest;
 import com.pfcbuy.order.dto.OrderQueryRequest;
 import com.pfcbuy.order.dto.OrderResponse;
 import com.pfcbuy.order.entity.Order;
 
+import java.util.List;
+
 /**
  * 订单服务接口
  *
@@ -46,6 +49,14 @@ public interface OrderService {
      */
     Page<OrderResponse> queryOrders(OrderQueryRequest request);
 
+    /**
+     * 游标分页查询订单列表（不统计总数，按创建时间倒序）
+     *
+     * @param request 查询请求，使用cursor和pageSize，忽略pageNum
+     * @return 订单列表和下一页游标
+     */
+    CursorPage<OrderResponse> scrollOrders(OrderQueryRequest request);
+
     /**
      * 取消订单
      *
@@ -55,15 +66,43 @@ public interface OrderService {
      */
     boolean cancelOrder(Long orderId, String reason);
 
+    /**
+     * 取消已支付订单并发起全额退款
+     * <p>
+     * 订单先置为已取消、退款中；退款成功后支付状态置为已退款，失败时保持退款中待人工处理。
+     *
+     * @param orderId 订单ID
+     * @param reason 取消原因，必填
+     * @return 是否成功取消
+     */
+    boolean cancelPaidOrder(Long orderId, String reason);
+
+    /**
+     * 批量取消超时未支付订单
+     *
+     * @param orderIds 订单ID
+     * @return 实际取消的订单数
+     */
+    int cancelExpiredOrders(List<Long> orderIds);
+
     /**
      * 更新订单状态
      *
      * @param orderId 订单ID
      * @param orderStatus 订单状态
-     * @return 是否成功
+     * @return 是否成功，当前状态不允许转换到目标状态时返回false
      */
     boolean updateOrderStatus(Long orderId, String orderStatus);
 
+    /**
+     * 批量更新订单状态
+     *
+     * @param orderIds 订单ID
+     * @param orderStatus 目标订单状态
+     * @return 实际更新的订单数（当前状态不允许转换的订单会被跳过）
+     */
+    int batchUpdateOrderStatus(List<Long> orderIds, String orderStatus);
+
     /**
      * 更新支付状态
      *
@@ -5,27 +5,35 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.pfcbuy.common.enums.OrderStatus;
 import com.pfcbuy.common.enums.PaymentStatus;
 import com.pfcbuy.common.exception.BusinessException;
+import com.pfcbuy.common.id.IdGenerator;
+import com.pfcbuy.common.page.CursorPage;
+import com.pfcbuy.common.page.KeysetPagination;
 import com.pfcbuy.common.result.Result;
+import com.pfcbuy.order.cache.OrderCache;
 import com.pfcbuy.order.dto.*;
 import com.pfcbuy.order.entity.Order;
 import com.pfcbuy.order.entity.OrderItem;
-import com.pfcbuy.order.feign.ProductFeignClient;
+import com.pfcbuy.order.feign.PaymentFeignClient;
 import com.pfcbuy.order.mapper.OrderItemMapper;
 import com.pfcbuy.order.mapper.OrderMapper;
 import com.pfcbuy.order.service.OrderService;
+import com.pfcbuy.order.state.OrderStateMachine;
+import com.pfcbuy.order.support.OrderExpireQueue;
+import com.pfcbuy.order.support.ProductSnapshotFetcher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +46,8 @@ import java.util.stream.Collectors;
 @Service
 public class OrderServiceImpl implements OrderService {
 
+    private static final String EXPIRE_CANCEL_REASON = "超时未支付，系统自动取消";
+
     @Autowired
     private OrderMapper orderMapper;
 
@@ -45,7 +55,25 @@ public class OrderServiceImpl implements OrderService {
     private OrderItemMapper orderItemMapper;
 
     @Autowired
-    private ProductFeignClient productFeignClient;
+    private ProductSnapshotFetcher productSnapshotFetcher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private OrderExpireQueue orderExpireQueue;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    @Autowired
+    private OrderStateMachine orderStateMachine;
+
+    @Autowired
+    private PaymentFeignClient paymentFeignClient;
 
     @Value("${business.order.timeout-minutes:30}")
     private Integer timeoutMinutes;
@@ -53,11 +81,20 @@ public class OrderServiceImpl implements OrderService {
     @Value("${business.order.order-prefix:PFC}")
     private String orderPrefix;
 
+    /**
+     * 创建订单
+     * <p>
+     * 商品快照在事务开始前并发获取，事务只包含订单和订单项的写入。
+     */
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public OrderResponse createOrder(CreateOrderRequest request) {
         log.info("开始创建订单，用户ID: {}", request.getUserId());
 
+        // 0. 并发获取全部商品快照
+        Map<Long, ProductSnapshotDTO> snapshots = productSnapshotFetcher.fetch(request.getItems().stream()
+                .map(CreateOrderRequest.OrderItemRequest::getProductSnapshotId)
+                .collect(Collectors.toList()));
+
         // 1. 生成订单号
         String orderNo = generateOrderNo();
 
@@ -85,8 +122,7 @@ public class OrderServiceImpl implements OrderService {
         BigDecimal totalProductAmount = BigDecimal.ZERO;
 
         for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            // 调用商品服务获取商品快照
-            ProductSnapshotDTO snapshot = getProductSnapshot(itemRequest.getProductSnapshotId());
+            ProductSnapshotDTO snapshot = snapshots.get(itemRequest.getProductSnapshotId());
             
             // 创建订单项
             OrderItem orderItem = new OrderItem();
@@ -134,16 +170,20 @@ public class OrderServiceImpl implements OrderService {
         order.setCurrency("USD");
         order.setExchangeRate(new BigDecimal("0.14")); // 假设汇率
 
-        // 5. 保存订单
-        orderMapper.insert(order);
-        log.info("订单主表保存成功，订单ID: {}, 订单号: {}", order.getId(), orderNo);
+        // 5. 保存订单和订单项
+        transactionTemplate.executeWithoutResult(status -> {
+            orderMapper.insert(order);
+            log.info("订单主表保存成功，订单ID: {}, 订单号: {}", order.getId(), orderNo);
 
-        // 6. 保存订单项
-        for (OrderItem item : orderItems) {
-            item.setOrderId(order.getId());
-        }
-        orderItemMapper.batchInsert(orderItems);
-        log.info("订单项保存成功，数量: {}", orderItems.size());
+            for (OrderItem item : orderItems) {
+                item.setOrderId(order.getId());
+            }
+            orderItemMapper.batchInsert(orderItems);
+            log.info("订单项保存成功，数量: {}", orderItems.size());
+        });
+
+        // 6. 加入超时取消队列
+        orderExpireQueue.add(order.getId(), order.getExpireTime());
 
         // 7. 返回订单响应
         return convertToOrderResponse(order, orderItems);
@@ -151,24 +191,16 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public OrderResponse getOrderById(Long orderId) {
-        Order order = orderMapper.selectById(orderId);
-        if (order == null) {
+        OrderResponse response = orderCache.get(orderId, () -> loadOrder(orderId));
+        if (response == null) {
             throw new BusinessException("订单不存在");
         }
-        
-        List<OrderItem> items = orderItemMapper.selectByOrderId(orderId);
-        return convertToOrderResponse(order, items);
+        return response;
     }
 
     @Override
     public OrderResponse getOrderByOrderNo(String orderNo) {
-        Order order = orderMapper.selectByOrderNo(orderNo);
-        if (order == null) {
-            throw new BusinessException("订单不存在");
-        }
-        
-        List<OrderItem> items = orderItemMapper.selectByOrderId(order.getId());
-        return convertToOrderResponse(order, items);
+        return getOrderById(resolveOrderId(orderNo));
     }
 
     @Override
@@ -188,11 +220,10 @@ public class OrderServiceImpl implements OrderService {
         Page<OrderResponse> responsePage = new Page<>();
         BeanUtils.copyProperties(orderPage, responsePage, "records");
         
+        // 一次查询当前页全部订单项
+        Map<Long, List<OrderItem>> itemsByOrderId = selectItemsByOrders(orderPage.getRecords());
         List<OrderResponse> responseList = orderPage.getRecords().stream()
-                .map(order -> {
-                    List<OrderItem> items = orderItemMapper.selectByOrderId(order.getId());
-                    return convertToOrderResponse(order, items);
-                })
+                .map(order -> convertToOrderResponse(order, itemsByOrderId.get(order.getId())))
                 .collect(Collectors.toList());
         
         responsePage.setRecords(responseList);
@@ -200,79 +231,196 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
+    public CursorPage<OrderResponse> scrollOrders(OrderQueryRequest request) {
+        LambdaQueryWrapper<Order> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(request.getUserId() != null, Order::getUserId, request.getUserId())
+                   .eq(StringUtils.hasText(request.getOrderNo()), Order::getOrderNo, request.getOrderNo())
+                   .eq(StringUtils.hasText(request.getOrderStatus()), Order::getOrderStatus, request.getOrderStatus())
+                   .eq(StringUtils.hasText(request.getPayStatus()), Order::getPayStatus, request.getPayStatus());
+
+        CursorPage<Order> orderPage = KeysetPagination.select(orderMapper, queryWrapper,
+                request.getCursor(), request.getPageSize());
+
+        Map<Long, List<OrderItem>> itemsByOrderId = selectItemsByOrders(orderPage.getRecords());
+        return orderPage.map(order -> convertToOrderResponse(order, itemsByOrderId.get(order.getId())));
+    }
+
+    @Override
     public boolean cancelOrder(Long orderId, String reason) {
+        // 只有未支付的已创建订单才能取消
+        if (orderStateMachine.cancelUnpaid(orderId, reason)) {
+            return true;
+        }
+        if (orderMapper.selectById(orderId) == null) {
+            throw new BusinessException("订单不存在");
+        }
+        throw new BusinessException("订单状态不允许取消");
+    }
+
+    @Override
+    public boolean cancelPaidOrder(Long orderId, String reason) {
+        if (!StringUtils.hasText(reason)) {
+            throw new BusinessException("取消已支付订单必须填写原因");
+        }
         Order order = orderMapper.selectById(orderId);
         if (order == null) {
             throw new BusinessException("订单不存在");
         }
-        
-        // 只有未支付或已创建的订单才能取消
-        if (!OrderStatus.CREATED.getCode().equals(order.getOrderStatus()) 
-            && !PaymentStatus.UNPAID.getCode().equals(order.getPayStatus())) {
+        if (!orderStateMachine.cancelPaid(orderId, reason)) {
             throw new BusinessException("订单状态不允许取消");
         }
-        
-        order.setOrderStatus(OrderStatus.CANCELLED.getCode());
-        order.setCancelTime(LocalDateTime.now());
-        order.setCancelReason(reason);
-        
-        return orderMapper.updateById(order) > 0;
+
+        // 订单状态已提交，再调用支付服务退款，远程调用不占用数据库连接
+        if (refund(order)) {
+            orderMapper.updatePayStatus(orderId, PaymentStatus.REFUNDED.getCode());
+            orderCache.invalidate(orderId);
+        }
+        return true;
+    }
+
+    /**
+     * 按订单已付金额全额退款
+     *
+     * @return true-退款成功 false-退款失败，订单保持退款中
+     */
+    private boolean refund(Order order) {
+        try {
+            Result<PaymentDTO> payment = paymentFeignClient.getPaymentByOrderNo(order.getOrderNo());
+            if (payment == null || !payment.isSuccess() || payment.getData() == null
+                    || !PaymentStatus.PAID.getCode().equals(payment.getData().getStatus())) {
+                log.error("未找到已支付的支付记录，退款需人工处理，订单号: {}", order.getOrderNo());
+                return false;
+            }
+            Result<Void> result = paymentFeignClient.createRefund(payment.getData().getId(), order.getPaidAmount());
+            if (result == null || !result.isSuccess()) {
+                log.error("退款失败，需人工处理，订单号: {}, 原因: {}", order.getOrderNo(),
+                        result == null ? null : result.getMessage());
+                return false;
+            }
+            log.info("已取消订单退款成功，订单号: {}, 金额: {}", order.getOrderNo(), order.getPaidAmount());
+            return true;
+        } catch (Exception e) {
+            log.error("退款请求异常，需人工处理，订单号: {}", order.getOrderNo(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 批量取消超时订单
+     * <p>
+     * 按批执行条件UPDATE，每批单独提交，已支付或状态已变化的订单自动跳过。
+     */
+    @Override
+    public int cancelExpiredOrders(List<Long> orderIds) {
+        return orderStateMachine.cancelUnpaid(orderIds, EXPIRE_CANCEL_REASON);
     }
 
     @Override
     public boolean updateOrderStatus(Long orderId, String orderStatus) {
-        return orderMapper.updateOrderStatus(orderId, orderStatus) > 0;
+        return orderStateMachine.transit(orderId, parseTransitTarget(orderStatus));
+    }
+
+    @Override
+    public int batchUpdateOrderStatus(List<Long> orderIds, String orderStatus) {
+        return orderStateMachine.transit(orderIds, parseTransitTarget(orderStatus));
     }
 
     @Override
     public boolean updatePayStatus(Long orderId, String payStatus) {
-        return orderMapper.updatePayStatus(orderId, payStatus) > 0;
+        boolean updated = orderMapper.updatePayStatus(orderId, payStatus) > 0;
+        orderCache.invalidate(orderId);
+        return updated;
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public boolean paymentSuccess(String orderNo, String paymentId) {
         log.info("处理支付成功回调，订单号: {}, 支付ID: {}", orderNo, paymentId);
-        
-        Order order = orderMapper.selectByOrderNo(orderNo);
-        if (order == null) {
-            throw new BusinessException("订单不存在");
+
+        Long orderId = resolveOrderId(orderNo);
+        if (orderStateMachine.markPaid(orderId)) {
+            return true;
         }
-        
-        // 更新订单状态
-        order.setPayStatus(PaymentStatus.PAID.getCode());
-        order.setOrderStatus(OrderStatus.PAID.getCode());
-        order.setPayTime(LocalDateTime.now());
-        order.setPaidAmount(order.getTotalAmount());
-        
-        return orderMapper.updateById(order) > 0;
+
+        // 未生效：重复回调视为成功，其他状态（如已超时取消）需人工处理
+        Order order = orderMapper.selectById(orderId);
+        if (order != null && PaymentStatus.PAID.getCode().equals(order.getPayStatus())) {
+            log.info("订单已支付，忽略重复回调，订单号: {}", orderNo);
+            return true;
+        }
+        log.warn("订单状态不允许支付，订单号: {}, 订单状态: {}, 支付状态: {}, 支付ID: {}", orderNo,
+                order == null ? null : order.getOrderStatus(), order == null ? null : order.getPayStatus(), paymentId);
+        return false;
     }
 
     /**
      * 生成订单号
-     * 格式: PFC + yyyyMMddHHmmss + 6位随机数
+     * 格式: PFC + Snowflake ID
      */
     private String generateOrderNo() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String random = String.format("%06d", (int) (Math.random() * 1000000));
-        return orderPrefix + timestamp + random;
+        return idGenerator.nextNo(orderPrefix);
     }
 
     /**
-     * 获取商品快照
+     * 根据订单号获取订单ID（优先读缓存的映射）
      */
-    private ProductSnapshotDTO getProductSnapshot(Long snapshotId) {
+    private Long resolveOrderId(String orderNo) {
+        Long orderId = orderCache.getOrderId(orderNo);
+        if (orderId != null) {
+            return orderId;
+        }
+        orderId = orderMapper.selectIdByOrderNo(orderNo);
+        if (orderId == null) {
+            throw new BusinessException("订单不存在");
+        }
+        orderCache.putOrderId(orderNo, orderId);
+        return orderId;
+    }
+
+    private static OrderStatus parseOrderStatus(String orderStatus) {
         try {
-            Result<ProductSnapshotDTO> result = productFeignClient.getProductSnapshot(snapshotId);
-            if (result.isSuccess() && result.getData() != null) {
-                return result.getData();
-            }
-            throw new BusinessException("商品快照不存在: " + snapshotId);
-        } catch (Exception e) {
-            log.error("获取商品快照失败: {}", snapshotId, e);
-            throw new BusinessException("获取商品信息失败");
+            return OrderStatus.getByCode(orderStatus);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(e.getMessage());
+        }
+    }
+
+    /**
+     * 解析通用状态变更的目标状态，已支付、已取消需走专用流程
+     */
+    private static OrderStatus parseTransitTarget(String orderStatus) {
+        OrderStatus target = parseOrderStatus(orderStatus);
+        if (OrderStateMachine.sourcesOf(target).isEmpty()) {
+            throw new BusinessException("不支持直接变更为该状态: " + orderStatus);
+        }
+        return target;
+    }
+
+    /**
+     * 从数据库加载订单详情
+     *
+     * @return 订单不存在返回null
+     */
+    private OrderResponse loadOrder(Long orderId) {
+        Order order = orderMapper.selectById(orderId);
+        if (order == null) {
+            return null;
         }
+        List<OrderItem> items = orderItemMapper.selectByOrderId(orderId);
+        return convertToOrderResponse(order, items);
+    }
+
+    /**
+     * 批量查询订单项并按订单ID分组
+     */
+    private Map<Long, List<OrderItem>> selectItemsByOrders(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> orderIds = orders.stream()
+                .map(Order::getId)
+                .collect(Collectors.toList());
+        return orderItemMapper.selectByOrderIds(orderIds).stream()
+                .collect(Collectors.groupingBy(OrderItem::getOrderId));
     }
 
     /**
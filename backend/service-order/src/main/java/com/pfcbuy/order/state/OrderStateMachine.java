@@ -0,0 +1,181 @@
+package com.pfcbuy.order.state;
+
+import com.pfcbuy.common.enums.OrderStatus;
+import com.pfcbuy.common.enums.PaymentStatus;
+import com.pfcbuy.order.cache.OrderCache;
+import com.pfcbuy.order.mapper.OrderMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 订单状态机
+ * <p>
+ * 每次状态变更只执行一条条件UPDATE（WHERE order_status IN 允许的源状态），
+ * 不需要先查询订单，并发的状态变更只有一个能生效，不会互相覆盖。
+ * 返回值表示变更是否生效；批量变更按批执行，返回实际变更的订单数。
+ * <p>
+ * 已支付和已取消不属于通用状态变更：已支付只能由 {@link #markPaid} 设置（同时写入支付信息），
+ * 取消只能通过 {@link #cancelUnpaid} 或 {@link #cancelPaid}（必须带原因并进入退款）。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+public class OrderStateMachine {
+
+    /**
+     * 通用状态变更：目标状态 -> 允许的源状态
+     */
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    /**
+     * 可取消未支付订单的状态
+     */
+    private static final Set<OrderStatus> UNPAID_CANCEL_SOURCES = EnumSet.of(OrderStatus.CREATED);
+
+    static {
+        SOURCES.put(OrderStatus.PURCHASING, EnumSet.of(OrderStatus.PAID));
+        SOURCES.put(OrderStatus.IN_WAREHOUSE, EnumSet.of(OrderStatus.PURCHASING));
+        SOURCES.put(OrderStatus.QC_COMPLETED, EnumSet.of(OrderStatus.IN_WAREHOUSE));
+        SOURCES.put(OrderStatus.SHIPPED, EnumSet.of(OrderStatus.IN_WAREHOUSE, OrderStatus.QC_COMPLETED));
+        SOURCES.put(OrderStatus.DELIVERED, EnumSet.of(OrderStatus.SHIPPED));
+    }
+
+    private final OrderMapper orderMapper;
+
+    private final OrderCache orderCache;
+
+    private final int chunkSize;
+
+    public OrderStateMachine(OrderMapper orderMapper,
+                             OrderCache orderCache,
+                             @Value("${business.order.status.chunk-size:200}") int chunkSize) {
+        this.orderMapper = orderMapper;
+        this.orderCache = orderCache;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 获取通用状态变更中允许转换到目标状态的源状态
+     *
+     * @param target 目标状态
+     * @return 源状态，不支持通用变更的状态（已创建、已支付、已取消）返回空集合
+     */
+    public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        return SOURCES.getOrDefault(target, Collections.emptySet());
+    }
+
+    /**
+     * 判断通用状态变更是否合法
+     */
+    public static boolean canTransit(OrderStatus from, OrderStatus to) {
+        return sourcesOf(to).contains(from);
+    }
+
+    /**
+     * 变更订单状态
+     *
+     * @param orderId 订单ID
+     * @param target 目标状态
+     * @return true-已变更 false-订单不存在或当前状态不允许
+     */
+    public boolean transit(Long orderId, OrderStatus target) {
+        return transit(List.of(orderId), target) > 0;
+    }
+
+    /**
+     * 批量变更订单状态
+     *
+     * @param orderIds 订单ID
+     * @param target 目标状态
+     * @return 实际变更的订单数
+     */
+    public int transit(List<Long> orderIds, OrderStatus target) {
+        return apply(orderIds, sourcesOf(target), target, null, null);
+    }
+
+    /**
+     * 取消未支付订单
+     *
+     * @param orderId 订单ID
+     * @param reason 取消原因
+     * @return true-已取消 false-订单不存在、已支付或状态已变化
+     */
+    public boolean cancelUnpaid(Long orderId, String reason) {
+        return cancelUnpaid(List.of(orderId), reason) > 0;
+    }
+
+    /**
+     * 批量取消未支付订单
+     *
+     * @param orderIds 订单ID
+     * @param reason 取消原因
+     * @return 实际取消的订单数
+     */
+    public int cancelUnpaid(List<Long> orderIds, String reason) {
+        return apply(orderIds, UNPAID_CANCEL_SOURCES, OrderStatus.CANCELLED, PaymentStatus.UNPAID, reason);
+    }
+
+    /**
+     * 取消已支付订单，支付状态置为退款中（仅已支付、采购中的订单）
+     * <p>
+     * 调用方负责随后发起退款。
+     *
+     * @param orderId 订单ID
+     * @param reason 取消原因
+     * @return true-已取消 false-订单不存在、未支付或状态不允许
+     */
+    public boolean cancelPaid(Long orderId, String reason) {
+        boolean applied = orderMapper.cancelPaid(orderId, reason) > 0;
+        if (applied) {
+            orderCache.invalidate(orderId);
+        }
+        return applied;
+    }
+
+    /**
+     * 标记订单已支付（同时更新支付状态、支付时间和已付金额）
+     *
+     * @param orderId 订单ID
+     * @return true-已变更 false-订单不存在或不是待支付状态
+     */
+    public boolean markPaid(Long orderId) {
+        boolean applied = orderMapper.markPaid(orderId) > 0;
+        if (applied) {
+            orderCache.invalidate(orderId);
+        }
+        return applied;
+    }
+
+    private int apply(List<Long> orderIds, Set<OrderStatus> sources, OrderStatus target,
+                      PaymentStatus payStatus, String cancelReason) {
+        if (orderIds.isEmpty() || sources.isEmpty()) {
+            return 0;
+        }
+        List<String> fromStatuses = sources.stream()
+                .map(OrderStatus::getCode)
+                .collect(Collectors.toList());
+        String requiredPayStatus = payStatus == null ? null : payStatus.getCode();
+
+        int applied = 0;
+        for (int from = 0; from < orderIds.size(); from += chunkSize) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + chunkSize, orderIds.size()));
+            int updated = orderMapper.transitStatus(chunk, fromStatuses, target.getCode(), requiredPayStatus, cancelReason);
+            if (updated > 0) {
+                orderCache.invalidate(chunk);
+            }
+            applied += updated;
+        }
+        log.debug("订单状态变更: target={}, 请求{}个, 生效{}个", target, orderIds.size(), applied);
+        return applied;
+    }
+}
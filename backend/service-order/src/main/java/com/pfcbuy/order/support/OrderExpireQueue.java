@@ -0,0 +1,111 @@
+package com.pfcbuy.order.support;
+
+import com.pfcbuy.common.constants.RedisConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 订单超时延迟队列
+ * <p>
+ * 基于Redis有序集合，成员为订单ID，分值为过期时间（毫秒时间戳）。
+ * 到期订单通过Lua脚本原子地取出并移除，多实例并发拉取时每个订单只会被一个实例取到。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+public class OrderExpireQueue {
+
+    /**
+     * 取出到期成员：ZRANGEBYSCORE + ZREM
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> POLL_SCRIPT = new DefaultRedisScript<>(
+            "local ids = redis.call('zrangebyscore', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) "
+                    + "if #ids > 0 then redis.call('zrem', KEYS[1], unpack(ids)) end "
+                    + "return ids",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public OrderExpireQueue(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 加入队列
+     * <p>
+     * Redis异常只记录日志，遗漏的订单由数据库兜底扫描处理。
+     *
+     * @param orderId 订单ID
+     * @param expireTime 过期时间
+     */
+    public void add(Long orderId, LocalDateTime expireTime) {
+        try {
+            redisTemplate.opsForZSet().add(RedisConstants.ORDER_EXPIRE_QUEUE_KEY,
+                    orderId.toString(), toEpochMillis(expireTime));
+        } catch (Exception e) {
+            log.warn("订单加入超时队列失败，等待兜底扫描: orderId={}, error={}", orderId, e.getMessage());
+        }
+    }
+
+    /**
+     * 重新加入队列（处理失败后延迟重试）
+     *
+     * @param orderIds 订单ID
+     * @param delay 重试延迟
+     */
+    public void requeue(Collection<Long> orderIds, Duration delay) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        double retryAt = System.currentTimeMillis() + delay.toMillis();
+        Set<TypedTuple<String>> tuples = orderIds.stream()
+                .map(id -> TypedTuple.of(id.toString(), retryAt))
+                .collect(Collectors.toSet());
+        try {
+            redisTemplate.opsForZSet().add(RedisConstants.ORDER_EXPIRE_QUEUE_KEY, tuples);
+        } catch (Exception e) {
+            log.warn("订单重新加入超时队列失败，等待兜底扫描: count={}, error={}", orderIds.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 取出已到期的订单ID
+     *
+     * @param limit 最多取出数量
+     * @return 到期订单ID，取出后即从队列中移除
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> pollDue(int limit) {
+        List<String> members = redisTemplate.execute(POLL_SCRIPT,
+                Collections.singletonList(RedisConstants.ORDER_EXPIRE_QUEUE_KEY),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(limit));
+        if (members == null || members.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> orderIds = new ArrayList<>(members.size());
+        for (String member : members) {
+            orderIds.add(Long.valueOf(member));
+        }
+        return orderIds;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,143 @@
+package com.pfcbuy.order.support;
+
+import com.pfcbuy.common.exception.BusinessException;
+import com.pfcbuy.common.result.Result;
+import com.pfcbuy.order.dto.ProductSnapshotBatchRequest;
+import com.pfcbuy.order.dto.ProductSnapshotDTO;
+import com.pfcbuy.order.feign.ProductFeignClient;
+import feign.Request;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 商品快照批量获取
+ * <p>
+ * 通过商品服务的批量接口查询，超过单批上限时按批并发查询，
+ * 整体受超时时间约束，耗时约等于一次远程调用。
+ * <p>
+ * 每次远程调用都带上不超过整体超时的连接/读取超时，超时后调用线程自行退出；
+ * 线程池满时直接拒绝下单，不在请求线程上执行查询。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+public class ProductSnapshotFetcher {
+
+    /**
+     * 商品服务单次批量查询上限
+     */
+    private static final int MAX_BATCH_SIZE = 200;
+
+    private final ProductFeignClient productFeignClient;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Duration timeout;
+
+    private final Request.Options callOptions;
+
+    public ProductSnapshotFetcher(ProductFeignClient productFeignClient,
+                                  @Qualifier("snapshotFetchExecutor") ThreadPoolTaskExecutor executor,
+                                  @Value("${business.order.snapshot-fetch.timeout:3s}") Duration timeout) {
+        this.productFeignClient = productFeignClient;
+        this.executor = executor;
+        this.timeout = timeout;
+        this.callOptions = new Request.Options(timeout.toMillis(), TimeUnit.MILLISECONDS,
+                timeout.toMillis(), TimeUnit.MILLISECONDS, true);
+    }
+
+    /**
+     * 获取商品快照
+     *
+     * @param snapshotIds 快照ID（可重复）
+     * @return 快照ID -> 快照，包含全部请求的ID
+     * @throws BusinessException 任一快照不存在、查询失败或超时
+     */
+    public Map<Long, ProductSnapshotDTO> fetch(Collection<Long> snapshotIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(snapshotIds));
+        if (ids.size() <= MAX_BATCH_SIZE) {
+            return requireAll(ids, getProductSnapshots(ids));
+        }
+
+        List<CompletableFuture<Map<Long, ProductSnapshotDTO>>> futures = new ArrayList<>();
+        try {
+            for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+                List<Long> batch = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+                futures.add(CompletableFuture.supplyAsync(() -> getProductSnapshots(batch), executor));
+            }
+        } catch (RejectedExecutionException e) {
+            futures.forEach(future -> future.cancel(false));
+            log.warn("商品快照查询线程池已满，拒绝下单: count={}", ids.size());
+            throw new BusinessException("系统繁忙，请稍后重试");
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 取消尚未开始的查询；已在执行的查询由单次调用超时结束
+            futures.forEach(future -> future.cancel(true));
+            log.error("获取商品快照超时: count={}, timeout={}", ids.size(), timeout);
+            throw new BusinessException("获取商品信息超时");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new BusinessException("获取商品信息被中断");
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof BusinessException businessException) {
+                throw businessException;
+            }
+            throw new BusinessException("获取商品信息失败");
+        }
+
+        Map<Long, ProductSnapshotDTO> snapshots = new LinkedHashMap<>(ids.size() * 2);
+        futures.forEach(future -> snapshots.putAll(future.join()));
+        return requireAll(ids, snapshots);
+    }
+
+    /**
+     * 批量查询一批商品快照
+     */
+    private Map<Long, ProductSnapshotDTO> getProductSnapshots(List<Long> snapshotIds) {
+        try {
+            Result<Map<Long, ProductSnapshotDTO>> result =
+                    productFeignClient.getProductSnapshots(new ProductSnapshotBatchRequest(new ArrayList<>(snapshotIds)),
+                            callOptions);
+            if (result.isSuccess() && result.getData() != null) {
+                return result.getData();
+            }
+            throw new BusinessException("批量查询商品快照失败: " + result.getMessage());
+        } catch (Exception e) {
+            log.error("获取商品快照失败: {}", snapshotIds, e);
+            throw new BusinessException("获取商品信息失败");
+        }
+    }
+
+    private static Map<Long, ProductSnapshotDTO> requireAll(List<Long> ids, Map<Long, ProductSnapshotDTO> snapshots) {
+        for (Long id : ids) {
+            if (snapshots.get(id) == null) {
+                log.error("商品快照不存在: {}", id);
+                throw new BusinessException("商品快照不存在: " + id);
+            }
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,100 @@
+package com.pfcbuy.order.task;
+
+import com.pfcbuy.order.mapper.OrderMapper;
+import com.pfcbuy.order.service.OrderService;
+import com.pfcbuy.order.support.OrderExpireQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 超时订单自动取消
+ * <p>
+ * 每秒从Redis延迟队列取出到期订单，按批执行条件UPDATE取消；
+ * 同时定期扫描数据库兜底，处理未能入队（Redis故障、数据丢失）的订单。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "business.order.expire", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OrderExpireScheduler {
+
+    private final OrderExpireQueue orderExpireQueue;
+
+    private final OrderService orderService;
+
+    private final OrderMapper orderMapper;
+
+    private final int batchSize;
+
+    private final Duration retryDelay;
+
+    public OrderExpireScheduler(OrderExpireQueue orderExpireQueue,
+                                OrderService orderService,
+                                OrderMapper orderMapper,
+                                @Value("${business.order.expire.batch-size:1000}") int batchSize,
+                                @Value("${business.order.expire.retry-delay:30s}") Duration retryDelay) {
+        this.orderExpireQueue = orderExpireQueue;
+        this.orderService = orderService;
+        this.orderMapper = orderMapper;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * 处理延迟队列中到期的订单
+     */
+    @Scheduled(fixedDelayString = "${business.order.expire.poll-interval:1000}")
+    public void cancelDueOrders() {
+        List<Long> orderIds;
+        do {
+            try {
+                orderIds = orderExpireQueue.pollDue(batchSize);
+            } catch (Exception e) {
+                log.warn("拉取超时订单队列失败: {}", e.getMessage());
+                return;
+            }
+            if (!cancel(orderIds)) {
+                orderExpireQueue.requeue(orderIds, retryDelay);
+                return;
+            }
+        } while (orderIds.size() == batchSize);
+    }
+
+    /**
+     * 兜底扫描数据库中已超时的订单
+     */
+    @Scheduled(initialDelayString = "${business.order.expire.sweep-interval:300000}",
+            fixedDelayString = "${business.order.expire.sweep-interval:300000}")
+    public void sweepExpiredOrders() {
+        LocalDateTime deadline = LocalDateTime.now();
+        List<Long> orderIds;
+        do {
+            orderIds = orderMapper.selectExpiredOrderIds(deadline, batchSize);
+            if (!cancel(orderIds)) {
+                return;
+            }
+        } while (orderIds.size() == batchSize);
+    }
+
+    private boolean cancel(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return true;
+        }
+        try {
+            int cancelled = orderService.cancelExpiredOrders(orderIds);
+            log.info("超时订单取消完成: 到期{}个, 取消{}个", orderIds.size(), cancelled);
+            return true;
+        } catch (Exception e) {
+            log.error("超时订单取消失败: count={}", orderIds.size(), e);
+            return false;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 支付服务启动类
@@ -16,6 +17,7 @@ import org.springframework.context.annotation.ComponentScan;
 @MapperScan("com.pfcbuy.payment.mapper")
 @EnableFeignClients(basePackages = "com.pfcbuy.payment.feign")
 @ComponentScan(basePackages = {"com.pfcbuy.payment", "com.pfcbuy.common"})
+@EnableScheduling
 public class PaymentServiceApplication {
 
     public static void main(String[] args) {
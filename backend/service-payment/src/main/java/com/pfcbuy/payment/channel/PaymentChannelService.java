@@ -5,10 +5,15 @@ import com.pfcbuy.payment.dto.CreatePaymentRequest;
 import com.pfcbuy.payment.dto.PaymentResponse;
 
 import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * 支付渠道抽象接口
  * 所有支付渠道都需要实现这个接口
+ * <p>
+ * 同步方法会阻塞到第三方返回，实现中不应在数据库事务内发起远程调用；
+ * 异步方法在指定线程池中执行同步方法，调用方线程不被阻塞。
  *
  * @author PfcBuy Team
  * @since 2024-02-04
@@ -36,6 +41,17 @@ public interface PaymentChannelService {
      */
     PaymentResponse queryPayment(String transactionId);
 
+    /**
+     * 异步创建支付
+     *
+     * @param request 支付请求
+     * @param executor 执行远程调用的线程池
+     * @return 支付响应
+     */
+    default CompletableFuture<PaymentResponse> createPaymentAsync(CreatePaymentRequest request, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> createPayment(request), executor);
+    }
+
     /**
      * 取消支付
      *
@@ -1,9 +1,11 @@
 package com.pfcbuy.payment.channel.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.pfcbuy.common.enums.PaymentChannel;
 import com.pfcbuy.common.enums.PaymentStatus;
 import com.pfcbuy.common.exception.BusinessException;
+import com.pfcbuy.common.id.IdGenerator;
 import com.pfcbuy.common.utils.JsonUtil;
 import com.pfcbuy.payment.channel.PaymentChannelService;
 import com.pfcbuy.payment.client.InflywayHttpClient;
@@ -15,6 +17,7 @@ import com.pfcbuy.payment.dto.inflyway.InflywayNotifyRequest;
 import com.pfcbuy.payment.dto.inflyway.InflywayPaymentResponse;
 import com.pfcbuy.payment.entity.Payment;
 import com.pfcbuy.payment.mapper.PaymentMapper;
+import com.pfcbuy.payment.outbox.PaymentOutboxService;
 import com.pfcbuy.payment.utils.InflywaySignUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,7 +29,6 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * 飞来汇支付服务实现
@@ -42,6 +44,13 @@ public class InflywayPaymentService implements PaymentChannelService {
     private final InflywayConfig inflywayConfig;
     private final InflywayHttpClient httpClient;
     private final PaymentMapper paymentMapper;
+    private final IdGenerator idGenerator;
+    private final PaymentOutboxService paymentOutboxService;
+
+    /**
+     * invoice_id前缀
+     */
+    private static final String INVOICE_PREFIX = "INV";
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -50,8 +59,13 @@ public class InflywayPaymentService implements PaymentChannelService {
         return PaymentChannel.INFLYWAY;
     }
 
+    /**
+     * 创建支付
+     * <p>
+     * 远程调用不在事务内：先写入INIT状态的支付记录，调用飞来汇后再单独更新结果，
+     * 第三方响应慢时不占用数据库连接。
+     */
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public PaymentResponse createPayment(CreatePaymentRequest request) {
         log.info("创建飞来汇支付: orderNo={}, amount={}, currency={}", 
                 request.getOrderNo(), request.getAmount(), request.getCurrency());
@@ -61,10 +75,20 @@ public class InflywayPaymentService implements PaymentChannelService {
             throw new BusinessException("不支持的货币类型: " + request.getCurrency());
         }
 
-        // 2. 生成invoice_id（业务系统流水号）
+        // 2. 检查订单是否已支付（同一订单可能有多条失败的支付记录，只看已支付的）
+        Long paidCount = paymentMapper.selectCount(
+                new LambdaQueryWrapper<Payment>()
+                        .eq(Payment::getOrderNo, request.getOrderNo())
+                        .eq(Payment::getStatus, PaymentStatus.PAID.getCode())
+        );
+        if (paidCount > 0) {
+            throw new BusinessException("该订单已支付");
+        }
+
+        // 3. 生成invoice_id（业务系统流水号）
         String invoiceId = generateInvoiceId();
 
-        // 3. 构建飞来汇请求
+        // 4. 构建飞来汇请求
         InflywayCreatePaymentRequest inflywayRequest = InflywayCreatePaymentRequest.builder()
                 .merchantId(inflywayConfig.getMerchantNo())
                 .invoiceId(invoiceId)
@@ -76,7 +100,7 @@ public class InflywayPaymentService implements PaymentChannelService {
                 .customerEmail(request.getCustomerEmail())
                 .build();
 
-        // 4. 生成签名（签名字段: amount + currency + invoice_id + merchant_id）
+        // 5. 生成签名（签名字段: amount + currency + invoice_id + merchant_id）
         String hash = InflywaySignUtil.createPaymentSign(
                 inflywayRequest.getAmount(),
                 inflywayRequest.getCurrency(),
@@ -88,7 +112,10 @@ public class InflywayPaymentService implements PaymentChannelService {
 
         log.info("飞来汇请求: invoiceId={}, hash={}", invoiceId, hash);
 
-        // 5. 调用飞来汇API
+        // 6. 保存支付记录（INIT）
+        Payment payment = savePaymentRecord(request, invoiceId);
+
+        // 7. 调用飞来汇API
         String apiUrl = inflywayConfig.getApiBaseUrl() + "/paycenter/api/order/payment/create";
         InflywayPaymentResponse inflywayResponse;
         
@@ -103,20 +130,22 @@ public class InflywayPaymentService implements PaymentChannelService {
             );
         } catch (Exception e) {
             log.error("调用飞来汇API失败: {}", e.getMessage(), e);
+            markCreateFailed(payment, e.getMessage());
             throw new BusinessException("创建支付失败: " + e.getMessage());
         }
 
-        // 6. 检查响应
+        // 8. 检查响应
         if (inflywayResponse == null || !inflywayResponse.isSuccess()) {
             String errorMsg = inflywayResponse != null ? inflywayResponse.getMessage() : "未知错误";
             log.error("飞来汇创建支付失败: {}", errorMsg);
+            markCreateFailed(payment, errorMsg);
             throw new BusinessException("创建支付失败: " + errorMsg);
         }
 
-        // 7. 保存支付记录
-        Payment payment = savePaymentRecord(request, invoiceId, inflywayResponse);
+        // 9. 更新第三方支付单号和支付链接
+        updateCreateResult(payment, inflywayResponse);
 
-        // 8. 构建返回响应
+        // 10. 构建返回响应
         return buildPaymentResponse(payment, inflywayResponse);
     }
 
@@ -189,8 +218,12 @@ public class InflywayPaymentService implements PaymentChannelService {
         return true;
     }
 
+    /**
+     * 退款
+     * <p>
+     * 远程调用不在事务内，退款成功后通过条件UPDATE更新状态（仅PAID状态生效）。
+     */
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public boolean refund(String transactionId, BigDecimal refundAmount, String reason) {
         log.info("飞来汇退款: transactionId={}, refundAmount={}, reason={}", 
                 transactionId, refundAmount, reason);
@@ -236,11 +269,19 @@ public class InflywayPaymentService implements PaymentChannelService {
         }
 
         // 5. 更新本地状态
-        payment.setStatus(PaymentStatus.REFUNDED.getCode());
-        payment.setRefundAmount(refundAmount);
-        payment.setRefundedAt(LocalDateTime.now());
-        payment.setRemark(reason);
-        paymentMapper.updateById(payment);
+        int updated = paymentMapper.update(null,
+                new LambdaUpdateWrapper<Payment>()
+                        .eq(Payment::getId, payment.getId())
+                        .eq(Payment::getStatus, PaymentStatus.PAID.getCode())
+                        .set(Payment::getStatus, PaymentStatus.REFUNDED.getCode())
+                        .set(Payment::getRefundAmount, refundAmount)
+                        .set(Payment::getRefundedAt, LocalDateTime.now())
+                        .set(Payment::getRemark, reason)
+                        .set(Payment::getUpdateTime, LocalDateTime.now())
+        );
+        if (updated == 0) {
+            log.warn("退款成功但支付状态已变化，未更新本地记录: paymentNo={}", payment.getPaymentNo());
+        }
 
         return true;
     }
@@ -262,6 +303,25 @@ public class InflywayPaymentService implements PaymentChannelService {
         }
     }
 
+    /**
+     * 验证支付结果回调签名
+     *
+     * @param notify 回调数据
+     * @return 签名是否正确
+     */
+    public boolean verifyNotify(InflywayNotifyRequest notify) {
+        return InflywaySignUtil.verifyPaymentResultSign(
+                notify.getAmount(),
+                notify.getCurrency(),
+                notify.getInvoiceId(),
+                notify.getMerchantId(),
+                notify.getPaymentOrderId(),
+                notify.getStatus(),
+                notify.getHash(),
+                inflywayConfig.getApiSecret()
+        );
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void handlePaymentSuccess(String payload) {
@@ -272,17 +332,7 @@ public class InflywayPaymentService implements PaymentChannelService {
             InflywayNotifyRequest notify = JsonUtil.fromJson(payload, InflywayNotifyRequest.class);
 
             // 2. 验证签名
-            String calculatedHash = InflywaySignUtil.paymentResultSign(
-                    notify.getAmount(),
-                    notify.getCurrency(),
-                    notify.getInvoiceId(),
-                    notify.getMerchantId(),
-                    notify.getPaymentOrderId(),
-                    notify.getStatus(),
-                    inflywayConfig.getApiSecret()
-            );
-
-            if (!calculatedHash.equals(notify.getHash())) {
+            if (!verifyNotify(notify)) {
                 log.error("飞来汇回调签名验证失败: invoiceId={}", notify.getInvoiceId());
                 throw new BusinessException("签名验证失败");
             }
@@ -304,16 +354,24 @@ public class InflywayPaymentService implements PaymentChannelService {
                 return;
             }
 
-            // 5. 更新支付状态
-            payment.setStatus(PaymentStatus.PAID.getCode());
-            payment.setThirdPartyTransactionId(notify.getPaymentOrderId());
-            payment.setPaidAt(LocalDateTime.now());
-            paymentMapper.updateById(payment);
+            // 5. 更新支付状态（条件更新，并发的重复回调只有一个生效）
+            int updated = paymentMapper.update(null,
+                    new LambdaUpdateWrapper<Payment>()
+                            .eq(Payment::getId, payment.getId())
+                            .ne(Payment::getStatus, PaymentStatus.PAID.getCode())
+                            .set(Payment::getStatus, PaymentStatus.PAID.getCode())
+                            .set(Payment::getThirdPartyTransactionId, notify.getPaymentOrderId())
+                            .set(Payment::getPaidAt, LocalDateTime.now())
+            );
+            if (updated == 0) {
+                log.info("支付已处理，跳过: paymentNo={}", payment.getPaymentNo());
+                return;
+            }
 
-            log.info("飞来汇支付成功处理完成: paymentNo={}", payment.getPaymentNo());
+            // 6. 与支付状态同一事务记录订单通知，由发件箱中继投递到订单服务
+            paymentOutboxService.orderPaid(payment);
 
-            // 6. 通知订单服务（通过 Feign 或消息队列）
-            // TODO: 调用订单服务更新订单状态
+            log.info("飞来汇支付成功处理完成: paymentNo={}", payment.getPaymentNo());
 
         } catch (Exception e) {
             log.error("处理飞来汇支付成功回调失败: {}", e.getMessage(), e);
@@ -331,17 +389,7 @@ public class InflywayPaymentService implements PaymentChannelService {
             InflywayNotifyRequest notify = JsonUtil.fromJson(payload, InflywayNotifyRequest.class);
 
             // 2. 验证签名
-            String calculatedHash = InflywaySignUtil.paymentResultSign(
-                    notify.getAmount(),
-                    notify.getCurrency(),
-                    notify.getInvoiceId(),
-                    notify.getMerchantId(),
-                    notify.getPaymentOrderId(),
-                    notify.getStatus(),
-                    inflywayConfig.getApiSecret()
-            );
-
-            if (!calculatedHash.equals(notify.getHash())) {
+            if (!verifyNotify(notify)) {
                 log.error("飞来汇回调签名验证失败: invoiceId={}", notify.getInvoiceId());
                 throw new BusinessException("签名验证失败");
             }
@@ -357,10 +405,20 @@ public class InflywayPaymentService implements PaymentChannelService {
                 return;
             }
 
-            // 4. 更新支付状态
-            payment.setStatus(PaymentStatus.FAILED.getCode());
-            payment.setFailureReason(notify.getFailureReason());
-            paymentMapper.updateById(payment);
+            // 4. 更新支付状态（条件更新，乱序或重放的失败回调不能覆盖已支付、已退款的记录）
+            int updated = paymentMapper.update(null,
+                    new LambdaUpdateWrapper<Payment>()
+                            .eq(Payment::getId, payment.getId())
+                            .notIn(Payment::getStatus, PaymentStatus.PAID.getCode(), PaymentStatus.REFUNDED.getCode())
+                            .set(Payment::getStatus, PaymentStatus.FAILED.getCode())
+                            .set(Payment::getFailureReason, notify.getFailureReason())
+                            .set(Payment::getUpdateTime, LocalDateTime.now())
+            );
+            if (updated == 0) {
+                log.warn("支付已成功或已退款，忽略失败回调: paymentNo={}, status={}",
+                        payment.getPaymentNo(), payment.getStatus());
+                return;
+            }
 
             log.info("飞来汇支付失败处理完成: paymentNo={}, reason={}", 
                     payment.getPaymentNo(), notify.getFailureReason());
@@ -372,10 +430,9 @@ public class InflywayPaymentService implements PaymentChannelService {
     }
 
     /**
-     * 保存支付记录
+     * 保存支付记录（调用飞来汇前）
      */
-    private Payment savePaymentRecord(CreatePaymentRequest request, String invoiceId,
-                                     InflywayPaymentResponse inflywayResponse) {
+    private Payment savePaymentRecord(CreatePaymentRequest request, String invoiceId) {
         Payment payment = new Payment();
         payment.setPaymentNo(invoiceId);  // 使用invoice_id作为商户支付号
         payment.setOrderNo(request.getOrderNo());
@@ -384,14 +441,6 @@ public class InflywayPaymentService implements PaymentChannelService {
         payment.setCurrency(request.getCurrency());
         payment.setStatus(PaymentStatus.INIT.getCode());
         payment.setPaymentChannel(PaymentChannel.INFLYWAY.getCode());
-
-        // 飞来汇特有字段
-        if (inflywayResponse.getData() != null) {
-            payment.setThirdPartyTransactionId(inflywayResponse.getData().getPaymentOrderId());
-            // 修复：使用正确的字段名 inflywayPayUrl
-            payment.setInflywayPayUrl(inflywayResponse.getData().getPaymentUrl());
-        }
-
         payment.setMetadata(request.getMetadata() != null ? JsonUtil.toJson(request.getMetadata()) : null);
         
         paymentMapper.insert(payment);
@@ -399,6 +448,42 @@ public class InflywayPaymentService implements PaymentChannelService {
         return payment;
     }
 
+    /**
+     * 更新飞来汇返回的第三方支付单号和支付链接
+     */
+    private void updateCreateResult(Payment payment, InflywayPaymentResponse inflywayResponse) {
+        if (inflywayResponse.getData() == null) {
+            return;
+        }
+        payment.setThirdPartyTransactionId(inflywayResponse.getData().getPaymentOrderId());
+        payment.setInflywayPayUrl(inflywayResponse.getData().getPaymentUrl());
+        paymentMapper.update(null,
+                new LambdaUpdateWrapper<Payment>()
+                        .eq(Payment::getId, payment.getId())
+                        .set(Payment::getThirdPartyTransactionId, payment.getThirdPartyTransactionId())
+                        .set(Payment::getInflywayPayUrl, payment.getInflywayPayUrl())
+                        .set(Payment::getUpdateTime, LocalDateTime.now())
+        );
+    }
+
+    /**
+     * 创建失败时标记支付记录失败（仅INIT状态生效）
+     */
+    private void markCreateFailed(Payment payment, String reason) {
+        try {
+            paymentMapper.update(null,
+                    new LambdaUpdateWrapper<Payment>()
+                            .eq(Payment::getId, payment.getId())
+                            .eq(Payment::getStatus, PaymentStatus.INIT.getCode())
+                            .set(Payment::getStatus, PaymentStatus.FAILED.getCode())
+                            .set(Payment::getFailureReason, reason)
+                            .set(Payment::getUpdateTime, LocalDateTime.now())
+            );
+        } catch (Exception e) {
+            log.error("标记支付失败出错: paymentNo={}", payment.getPaymentNo(), e);
+        }
+    }
+
     /**
      * 构建支付响应
      */
@@ -458,8 +543,8 @@ public class InflywayPaymentService implements PaymentChannelService {
      * 生成invoice_id（业务系统流水号）
      */
     private String generateInvoiceId() {
-        // 格式: PFC + 时间戳 + 随机数，长度不超过50
-        return "PFC" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        // 格式: INV + Snowflake ID，长度不超过50；与订单号（PFC）前缀不同，避免两者混淆
+        return idGenerator.nextNo(INVOICE_PREFIX);
     }
 
     /**
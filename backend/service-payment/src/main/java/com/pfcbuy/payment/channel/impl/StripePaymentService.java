@@ -5,6 +5,7 @@ import com.pfcbuy.common.enums.PaymentChannel;
 import com.pfcbuy.common.enums.PaymentStatus;
 import com.pfcbuy.common.exception.BusinessException;
 import com.pfcbuy.common.exception.NotFoundException;
+import com.pfcbuy.common.id.IdGenerator;
 import com.pfcbuy.common.result.Result;
 import com.pfcbuy.common.utils.JsonUtil;
 import com.pfcbuy.payment.channel.PaymentChannelService;
@@ -23,7 +24,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Stripe 支付渠道服务实现
@@ -38,6 +38,7 @@ import java.util.UUID;
 public class StripePaymentService implements PaymentChannelService {
 
     private final PaymentMapper paymentMapper;
+    private final IdGenerator idGenerator;
     private final StripeService stripeService;
     private final OrderFeignClient orderFeignClient;
 
@@ -46,20 +47,24 @@ public class StripePaymentService implements PaymentChannelService {
         return PaymentChannel.STRIPE;
     }
 
+    /**
+     * 创建支付
+     * <p>
+     * 订单查询和创建PaymentIntent均为远程调用，不放在事务内；支付记录在最后单条写入。
+     */
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public PaymentResponse createPayment(CreatePaymentRequest request) {
         log.info("Stripe创建支付: orderNo={}, amount={}, currency={}", 
                 request.getOrderNo(), request.getAmount(), request.getCurrency());
 
-        // 1. 检查是否已存在支付记录
-        Payment existingPayment = paymentMapper.selectOne(
+        // 1. 检查订单是否已支付（同一订单可能有多条失败的支付记录，只看已支付的）
+        Long paidCount = paymentMapper.selectCount(
                 new LambdaQueryWrapper<Payment>()
                         .eq(Payment::getOrderNo, request.getOrderNo())
-                        .last("LIMIT 1")
+                        .eq(Payment::getStatus, PaymentStatus.PAID.getCode())
         );
-        
-        if (existingPayment != null && PaymentStatus.PAID.getCode().equals(existingPayment.getStatus())) {
+
+        if (paidCount > 0) {
             throw new BusinessException("该订单已支付");
         }
 
@@ -185,7 +190,7 @@ public class StripePaymentService implements PaymentChannelService {
      * 生成支付流水号
      */
     private String generatePaymentNo() {
-        return "PAY" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return idGenerator.nextNo("PAY");
     }
 
     /**
@@ -0,0 +1,135 @@
+package com.pfcbuy.payment.client;
+
+import com.pfcbuy.common.metrics.LatencyHistogram;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 出站HTTP调用指标
+ * <p>
+ * 作为RestTemplate拦截器按接口（方法 + 主机 + 路径）统计请求数、错误数和延迟分布（到收到响应头为止），
+ * 并提供连接池的占用情况。
+ *
+ * @author PfcBuy Team
+ */
+@Component
+public class HttpClientMetrics implements ClientHttpRequestInterceptor {
+
+    /**
+     * 统计的接口数上限，超出的归入 {@link #OTHER_ENDPOINT}
+     */
+    private static final int MAX_ENDPOINTS = 200;
+
+    private static final String OTHER_ENDPOINT = "other";
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    public HttpClientMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        EndpointMetrics metrics = metricsFor(request);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            success = !response.getStatusCode().isError();
+            return response;
+        } finally {
+            metrics.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), success);
+        }
+    }
+
+    /**
+     * 连接池和各接口的统计
+     */
+    public Map<String, Object> stats() {
+        long now = System.currentTimeMillis();
+
+        PoolStats total = connectionManager.getTotalStats();
+        Map<String, Object> pool = toMap(total);
+        Map<String, Object> routes = new TreeMap<>();
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            routes.put(route.getTargetHost().toURI(), toMap(connectionManager.getStats(route)));
+        }
+        pool.put("routes", routes);
+
+        Map<String, Object> endpointStats = new TreeMap<>();
+        endpoints.forEach((endpoint, metrics) -> endpointStats.put(endpoint, metrics.snapshot(now)));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pool", pool);
+        stats.put("endpoints", endpointStats);
+        return stats;
+    }
+
+    private EndpointMetrics metricsFor(HttpRequest request) {
+        URI uri = request.getURI();
+        String endpoint = request.getMethod().name() + " " + uri.getScheme() + "://" + uri.getRawAuthority() + uri.getRawPath();
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics != null) {
+            return metrics;
+        }
+        if (endpoints.size() >= MAX_ENDPOINTS) {
+            return endpoints.computeIfAbsent(OTHER_ENDPOINT, key -> new EndpointMetrics());
+        }
+        return endpoints.computeIfAbsent(endpoint, key -> new EndpointMetrics());
+    }
+
+    private static Map<String, Object> toMap(PoolStats stats) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("leased", stats.getLeased());
+        map.put("available", stats.getAvailable());
+        map.put("pending", stats.getPending());
+        map.put("max", stats.getMax());
+        return map;
+    }
+
+    /**
+     * 单个接口的指标
+     */
+    private static final class EndpointMetrics {
+
+        private final LatencyHistogram latency = new LatencyHistogram(6, 10_000L);
+
+        private final LongAdder requests = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private void record(long micros, boolean success) {
+            latency.record(micros, System.currentTimeMillis());
+            requests.increment();
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        private Map<String, Object> snapshot(long nowMillis) {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("requests", requests.sum());
+            snapshot.put("errors", errors.sum());
+            snapshot.put("latency", latency.snapshot(nowMillis));
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.pfcbuy.payment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 出站HTTP连接池配置
+ *
+ * @author PfcBuy Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "http-client")
+public class HttpClientProperties {
+
+    /**
+     * 最大连接数
+     */
+    private int maxTotal = 200;
+
+    /**
+     * 每个目标主机的默认最大连接数
+     */
+    private int maxPerRoute = 50;
+
+    /**
+     * 按主机单独设置最大连接数：基础URL（如 https://api.inflyway.com）-> 最大连接数
+     */
+    private Map<String, Integer> hosts = new HashMap<>();
+
+    /**
+     * 建立连接超时
+     */
+    private Duration connectTimeout = Duration.ofSeconds(3);
+
+    /**
+     * 等待响应超时（两次读取数据之间的最长间隔）
+     */
+    private Duration responseTimeout = Duration.ofSeconds(15);
+
+    /**
+     * 从连接池获取连接的最长等待时间
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    /**
+     * 连接最长存活时间
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    /**
+     * 空闲连接最长保留时间
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * 空闲超过该时间的连接复用前先检查可用性
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
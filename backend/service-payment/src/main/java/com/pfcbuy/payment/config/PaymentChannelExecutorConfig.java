@@ -0,0 +1,38 @@
+package com.pfcbuy.payment.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 支付渠道远程调用线程池配置
+ *
+ * @author PfcBuy Team
+ */
+@Configuration
+public class PaymentChannelExecutorConfig {
+
+    /**
+     * 支付渠道调用线程池
+     * <p>
+     * 与Web线程池隔离，渠道响应慢时只占用本线程池；队列满时直接拒绝，避免请求无限堆积。
+     */
+    @Bean
+    public ThreadPoolTaskExecutor paymentChannelExecutor(
+            @Value("${payment.channel-executor.threads:64}") int threads,
+            @Value("${payment.channel-executor.queue-size:512}") int queueSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueSize);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("payment-channel-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
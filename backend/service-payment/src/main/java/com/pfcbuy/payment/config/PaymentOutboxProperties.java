@@ -0,0 +1,53 @@
+package com.pfcbuy.payment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 支付事件发件箱投递配置
+ *
+ * @author PfcBuy Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "payment.outbox")
+public class PaymentOutboxProperties {
+
+    /**
+     * 投递线程数
+     */
+    private int threads = 8;
+
+    /**
+     * 每批领取的事件数
+     */
+    private int batchSize = 100;
+
+    /**
+     * 领取后的租约时长，超时未完成的事件可被重新领取
+     */
+    private Duration lease = Duration.ofMinutes(1);
+
+    /**
+     * 最大投递次数，超过后标记为DEAD
+     */
+    private int maxAttempts = 15;
+
+    /**
+     * 首次重试间隔，之后每次翻倍
+     */
+    private Duration retryBaseDelay = Duration.ofSeconds(2);
+
+    /**
+     * 最大重试间隔
+     */
+    private Duration retryMaxDelay = Duration.ofMinutes(10);
+
+    /**
+     * 已投递事件保留时长
+     */
+    private Duration retention = Duration.ofDays(3);
+}
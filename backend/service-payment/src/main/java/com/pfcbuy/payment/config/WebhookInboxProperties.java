@@ -0,0 +1,53 @@
+package com.pfcbuy.payment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Webhook收件箱处理配置
+ *
+ * @author PfcBuy Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "payment.webhook-inbox")
+public class WebhookInboxProperties {
+
+    /**
+     * 处理线程数，不同支付的事件并行处理
+     */
+    private int threads = 8;
+
+    /**
+     * 每批领取的事件数
+     */
+    private int batchSize = 100;
+
+    /**
+     * 领取后的租约时长，超时未完成的事件可被重新领取
+     */
+    private Duration lease = Duration.ofMinutes(1);
+
+    /**
+     * 最大处理次数，超过后标记为DEAD
+     */
+    private int maxAttempts = 12;
+
+    /**
+     * 首次重试间隔，之后每次翻倍
+     */
+    private Duration retryBaseDelay = Duration.ofSeconds(5);
+
+    /**
+     * 最大重试间隔
+     */
+    private Duration retryMaxDelay = Duration.ofMinutes(30);
+
+    /**
+     * 已处理事件保留时长（覆盖第三方的重试窗口，期间重复推送会被去重）
+     */
+    private Duration retention = Duration.ofDays(7);
+}
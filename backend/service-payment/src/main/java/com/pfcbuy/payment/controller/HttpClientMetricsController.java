@@ -0,0 +1,31 @@
+package com.pfcbuy.payment.controller;
+
+import com.pfcbuy.common.result.Result;
+import com.pfcbuy.payment.client.HttpClientMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 出站HTTP调用指标Controller
+ *
+ * @author PfcBuy Team
+ */
+@RestController
+@RequestMapping("/actuator")
+@RequiredArgsConstructor
+public class HttpClientMetricsController {
+
+    private final HttpClientMetrics httpClientMetrics;
+
+    /**
+     * 连接池占用情况和各接口的请求数、错误数、延迟分布（p50/p90/p99）
+     */
+    @GetMapping("/http-client")
+    public Result<Map<String, Object>> httpClient() {
+        return Result.success(httpClientMetrics.stats());
+    }
+}
@@ -1,5 +1,6 @@
 package com.pfcbuy.payment.controller;
 
+import com.pfcbuy.common.page.CursorPage;
 import com.pfcbuy.common.result.Result;
 import com.pfcbuy.payment.dto.CreatePaymentRequest;
 import com.pfcbuy.payment.dto.PaymentResponse;
@@ -10,7 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 支付控制器
@@ -28,15 +29,17 @@ public class PaymentController {
 
     /**
      * 创建支付
+     * <p>
+     * 异步处理：等待第三方支付渠道期间释放Web线程。
      */
     @PostMapping
-    public Result<PaymentResponse> createPayment(
+    public CompletableFuture<Result<PaymentResponse>> createPayment(
             @Valid @RequestBody CreatePaymentRequest request,
             @RequestHeader(value = "X-User-Id", required = false, defaultValue = "1") Long userId
     ) {
         log.info("创建支付请求: orderNo={}, userId={}", request.getOrderNo(), userId);
-        PaymentResponse response = paymentService.createPayment(request, userId);
-        return Result.success(response);
+        return paymentService.createPaymentAsync(request, userId)
+                .thenApply(Result::success);
     }
 
     /**
@@ -50,12 +53,14 @@ public class PaymentController {
     }
 
     /**
-     * 根据用户ID获取支付列表
+     * 根据用户ID获取支付列表（游标分页）
      */
     @GetMapping("/user/{userId}")
-    public Result<List<PaymentResponse>> getPaymentsByUserId(@PathVariable Long userId) {
-        log.info("查询用户支付列表: userId={}", userId);
-        List<PaymentResponse> responses = paymentService.getPaymentsByUserId(userId);
+    public Result<CursorPage<PaymentResponse>> getPaymentsByUserId(@PathVariable Long userId,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        log.info("查询用户支付列表: userId={}, cursor={}", userId, cursor);
+        CursorPage<PaymentResponse> responses = paymentService.getPaymentsByUserId(userId, cursor, size);
         return Result.success(responses);
     }
 
@@ -0,0 +1,31 @@
+package com.pfcbuy.payment.controller;
+
+import com.pfcbuy.common.result.Result;
+import com.pfcbuy.payment.outbox.PaymentOutboxMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 发件箱投递指标Controller
+ *
+ * @author PfcBuy Team
+ */
+@RestController
+@RequestMapping("/actuator")
+@RequiredArgsConstructor
+public class PaymentOutboxMetricsController {
+
+    private final PaymentOutboxMetrics paymentOutboxMetrics;
+
+    /**
+     * 投递成功/失败数、投递延迟分布（p50/p90/p99）和当前积压
+     */
+    @GetMapping("/outbox")
+    public Result<Map<String, Object>> outbox() {
+        return Result.success(paymentOutboxMetrics.stats());
+    }
+}
@@ -1,16 +1,28 @@
 package com.pfcbuy.payment.controller;
 
-import com.pfcbuy.payment.service.PaymentService;
+import com.pfcbuy.common.enums.PaymentChannel;
+import com.pfcbuy.common.exception.BusinessException;
+import com.pfcbuy.common.utils.JsonUtil;
+import com.pfcbuy.payment.channel.impl.InflywayPaymentService;
+import com.pfcbuy.payment.dto.inflyway.InflywayNotifyRequest;
 import com.pfcbuy.payment.service.StripeService;
+import com.pfcbuy.payment.webhook.WebhookInboxService;
+import com.stripe.model.Charge;
 import com.stripe.model.Event;
 import com.stripe.model.PaymentIntent;
 import com.stripe.model.StripeObject;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 /**
- * Stripe Webhook 控制器
+ * Webhook 控制器
+ * <p>
+ * 只验证签名并写入收件箱，写入成功即应答，事件由
+ * {@link com.pfcbuy.payment.task.WebhookInboxProcessor} 异步处理。
+ * 写入失败返回5xx，由第三方重试推送。
  *
  * @author PfcBuy Team
  * @since 2024-02-04
@@ -22,105 +34,70 @@ import org.springframework.web.bind.annotation.*;
 public class WebhookController {
 
     private final StripeService stripeService;
-    private final PaymentService paymentService;
+    private final InflywayPaymentService inflywayPaymentService;
+    private final WebhookInboxService webhookInboxService;
 
     /**
      * 处理 Stripe Webhook 事件
      */
     @PostMapping("/stripe")
-    public String handleStripeWebhook(
+    public ResponseEntity<String> handleStripeWebhook(
             @RequestBody String payload,
             @RequestHeader("Stripe-Signature") String signature
     ) {
-        log.info("收到 Stripe Webhook 请求");
-
+        Event event;
         try {
             // 验证 Webhook 签名
-            Event event = stripeService.constructWebhookEvent(payload, signature);
-            
-            // 处理不同类型的事件
-            handleEvent(event);
+            event = stripeService.constructWebhookEvent(payload, signature);
+        } catch (BusinessException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("error");
+        }
 
-            return "success";
+        try {
+            webhookInboxService.append(PaymentChannel.STRIPE, event.getId(), event.getType(),
+                    stripePartitionKey(event), payload);
+            return ResponseEntity.ok("success");
         } catch (Exception e) {
-            log.error("处理 Webhook 失败: {}", e.getMessage(), e);
-            return "error";
+            log.error("Stripe Webhook 写入收件箱失败: eventId={}", event.getId(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("error");
         }
     }
 
     /**
-     * 处理事件
+     * 处理飞来汇支付结果回调
      */
-    private void handleEvent(Event event) {
-        log.info("处理 Webhook 事件: type={}, id={}", event.getType(), event.getId());
-
-        StripeObject stripeObject = event.getDataObjectDeserializer().getObject().orElse(null);
-        
-        switch (event.getType()) {
-            case "payment_intent.succeeded":
-                handlePaymentIntentSucceeded(stripeObject);
-                break;
-            case "payment_intent.payment_failed":
-                handlePaymentIntentFailed(stripeObject);
-                break;
-            case "payment_intent.canceled":
-                handlePaymentIntentCanceled(stripeObject);
-                break;
-            case "charge.refunded":
-                handleChargeRefunded(stripeObject);
-                break;
-            default:
-                log.info("未处理的事件类型: {}", event.getType());
+    @PostMapping("/inflyway")
+    public ResponseEntity<String> handleInflywayWebhook(@RequestBody String payload) {
+        InflywayNotifyRequest notify = JsonUtil.fromJson(payload, InflywayNotifyRequest.class);
+        if (notify == null || notify.getInvoiceId() == null || !inflywayPaymentService.verifyNotify(notify)) {
+            log.error("飞来汇回调签名验证失败");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("error");
         }
-    }
 
-    /**
-     * 处理支付成功
-     */
-    private void handlePaymentIntentSucceeded(StripeObject stripeObject) {
-        if (stripeObject instanceof PaymentIntent) {
-            PaymentIntent paymentIntent = (PaymentIntent) stripeObject;
-            log.info("支付成功: paymentIntentId={}", paymentIntent.getId());
-            
-            // 在较新版本的 Stripe SDK 中，Charge ID 可以从 latest_charge 获取
-            String chargeId = paymentIntent.getLatestCharge();
-            
-            paymentService.handlePaymentSucceeded(paymentIntent.getId(), chargeId);
+        // 飞来汇没有事件ID，同一支付单的同一状态视为同一事件
+        String paymentOrderId = notify.getPaymentOrderId() != null ? notify.getPaymentOrderId() : notify.getInvoiceId();
+        String eventId = paymentOrderId + ":" + notify.getStatus();
+        try {
+            webhookInboxService.append(PaymentChannel.INFLYWAY, eventId, notify.getStatus(),
+                    notify.getInvoiceId(), payload);
+            return ResponseEntity.ok("success");
+        } catch (Exception e) {
+            log.error("飞来汇回调写入收件箱失败: invoiceId={}", notify.getInvoiceId(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("error");
         }
     }
 
     /**
-     * 处理支付失败
+     * Stripe 事件的分区键：同一 PaymentIntent 的事件按顺序处理
      */
-    private void handlePaymentIntentFailed(StripeObject stripeObject) {
-        if (stripeObject instanceof PaymentIntent) {
-            PaymentIntent paymentIntent = (PaymentIntent) stripeObject;
-            log.info("支付失败: paymentIntentId={}", paymentIntent.getId());
-            
-            String failureReason = paymentIntent.getLastPaymentError() != null 
-                    ? paymentIntent.getLastPaymentError().getMessage() 
-                    : "Unknown error";
-            
-            paymentService.handlePaymentFailed(paymentIntent.getId(), failureReason);
+    private String stripePartitionKey(Event event) {
+        StripeObject stripeObject = event.getDataObjectDeserializer().getObject().orElse(null);
+        if (stripeObject instanceof PaymentIntent paymentIntent) {
+            return paymentIntent.getId();
         }
-    }
-
-    /**
-     * 处理支付取消
-     */
-    private void handlePaymentIntentCanceled(StripeObject stripeObject) {
-        if (stripeObject instanceof PaymentIntent) {
-            PaymentIntent paymentIntent = (PaymentIntent) stripeObject;
-            log.info("支付取消: paymentIntentId={}", paymentIntent.getId());
-            // 可以在这里添加额外的处理逻辑
+        if (stripeObject instanceof Charge charge && charge.getPaymentIntent() != null) {
+            return charge.getPaymentIntent();
         }
+        return event.getId();
     }
-
-    /**
-     * 处理退款
-     */
-    private void handleChargeRefunded(StripeObject stripeObject) {
-        log.info("收到退款事件");
-        // 退款逻辑已在 createRefund 方法中处理，这里可以做额外的通知
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.pfcbuy.payment.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.pfcbuy.common.entity.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 支付事件发件箱实体类
+ *
+ * @author PfcBuy Team
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName("t_payment_outbox")
+public class PaymentOutbox extends BaseEntity {
+
+    /**
+     * 事件类型：订单已支付
+     */
+    public static final String TYPE_ORDER_PAID = "ORDER_PAID";
+
+    /**
+     * 待投递
+     */
+    public static final String STATUS_PENDING = "PENDING";
+
+    /**
+     * 投递中（已被领取，租约到期前其他实例不会领取）
+     */
+    public static final String STATUS_PROCESSING = "PROCESSING";
+
+    /**
+     * 已投递
+     */
+    public static final String STATUS_DONE = "DONE";
+
+    /**
+     * 超过最大重试次数或被订单服务拒绝，需人工处理
+     */
+    public static final String STATUS_DEAD = "DEAD";
+
+    /**
+     * 幂等键，同时作为请求头传给下游
+     */
+    private String eventKey;
+
+    /**
+     * 事件类型
+     */
+    private String eventType;
+
+    /**
+     * 消息内容（JSON）
+     */
+    private String payload;
+
+    /**
+     * 状态（PENDING/PROCESSING/DONE/DEAD）
+     */
+    private String status;
+
+    /**
+     * 失败次数
+     */
+    private Integer attempts;
+
+    /**
+     * 下次投递时间（投递中为租约到期时间）
+     */
+    private LocalDateTime nextAttemptTime;
+
+    /**
+     * 领取批次
+     */
+    private String claimOwner;
+
+    /**
+     * 最后一次错误
+     */
+    private String lastError;
+
+    /**
+     * 投递成功时间
+     */
+    private LocalDateTime deliveredTime;
+}
@@ -0,0 +1,89 @@
+package com.pfcbuy.payment.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.pfcbuy.common.entity.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * Webhook收件箱实体类
+ *
+ * @author PfcBuy Team
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName("t_webhook_inbox")
+public class WebhookInbox extends BaseEntity {
+
+    /**
+     * 待处理
+     */
+    public static final String STATUS_PENDING = "PENDING";
+
+    /**
+     * 处理中（已被领取，租约到期前其他实例不会领取）
+     */
+    public static final String STATUS_PROCESSING = "PROCESSING";
+
+    /**
+     * 已处理
+     */
+    public static final String STATUS_DONE = "DONE";
+
+    /**
+     * 超过最大重试次数，需人工处理
+     */
+    public static final String STATUS_DEAD = "DEAD";
+
+    /**
+     * 支付渠道（STRIPE/INFLYWAY）
+     */
+    private String provider;
+
+    /**
+     * 第三方事件ID
+     */
+    private String eventId;
+
+    /**
+     * 事件类型
+     */
+    private String eventType;
+
+    /**
+     * 分区键，同一支付的事件按到达顺序处理
+     */
+    private String partitionKey;
+
+    /**
+     * 原始回调内容
+     */
+    private String payload;
+
+    /**
+     * 状态（PENDING/PROCESSING/DONE/DEAD）
+     */
+    private String status;
+
+    /**
+     * 失败次数
+     */
+    private Integer attempts;
+
+    /**
+     * 下次处理时间（处理中为租约到期时间）
+     */
+    private LocalDateTime nextAttemptTime;
+
+    /**
+     * 领取批次
+     */
+    private String claimOwner;
+
+    /**
+     * 最后一次错误
+     */
+    private String lastError;
+}
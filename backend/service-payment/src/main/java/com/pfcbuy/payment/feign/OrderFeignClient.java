@@ -2,8 +2,10 @@ package com.pfcbuy.payment.feign;
 
 import com.pfcbuy.common.result.Result;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
 /**
@@ -15,21 +17,23 @@ import org.springframework.web.bind.annotation.RequestParam;
 @FeignClient(
         name = "service-order",
         url = "${feign.order-service.url}",
-        path = "/order"
+        path = "/api/v1/orders"
 )
 public interface OrderFeignClient {
 
     /**
      * 更新订单支付状态
      *
-     * @param orderNo   订单号
-     * @param paymentId 支付ID
-     * @return 更新结果
+     * @param orderNo        订单号
+     * @param paymentId      支付ID
+     * @param idempotencyKey 幂等键，重复通知使用相同的值
+     * @return true-已更新或已是支付状态 false-订单状态不允许支付
      */
-    @PostMapping("/orders/{orderNo}/payment")
-    Result<Void> updatePaymentStatus(
-            @PathVariable("orderNo") String orderNo,
-            @RequestParam("paymentId") String paymentId
+    @PostMapping("/payment-callback")
+    Result<Boolean> updatePaymentStatus(
+            @RequestParam("orderNo") String orderNo,
+            @RequestParam("paymentId") String paymentId,
+            @RequestHeader("Idempotency-Key") String idempotencyKey
     );
 
     /**
@@ -38,6 +42,6 @@ public interface OrderFeignClient {
      * @param orderNo 订单号
      * @return 订单信息
      */
-    @PostMapping("/orders/{orderNo}")
+    @GetMapping("/no/{orderNo}")
     Result<OrderDTO> getOrder(@PathVariable("orderNo") String orderNo);
 }
@@ -0,0 +1,74 @@
+package com.pfcbuy.payment.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.pfcbuy.payment.entity.PaymentOutbox;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 支付事件发件箱 Mapper 接口
+ *
+ * @author PfcBuy Team
+ */
+@Mapper
+public interface PaymentOutboxMapper extends BaseMapper<PaymentOutbox> {
+
+    /**
+     * 写入事件，幂等键已存在时忽略
+     *
+     * @return 1-已写入 0-重复事件
+     */
+    int insertIgnore(PaymentOutbox outbox);
+
+    /**
+     * 查询可领取的事件ID：待投递或租约已过期，且已到投递时间
+     */
+    List<Long> selectClaimableIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 领取事件（条件UPDATE，多个实例同时领取时只有一个生效）
+     */
+    int claim(@Param("ids") List<Long> ids,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * 查询本批次领取到的事件
+     */
+    List<PaymentOutbox> selectClaimed(@Param("owner") String owner);
+
+    /**
+     * 标记已投递
+     */
+    int markDone(@Param("ids") List<Long> ids,
+                 @Param("owner") String owner,
+                 @Param("deliveredTime") LocalDateTime deliveredTime);
+
+    /**
+     * 记录投递失败，等待重试或标记为DEAD
+     */
+    int markFailed(@Param("id") Long id,
+                   @Param("owner") String owner,
+                   @Param("status") String status,
+                   @Param("nextAttemptTime") LocalDateTime nextAttemptTime,
+                   @Param("lastError") String lastError);
+
+    /**
+     * 未投递的事件数
+     */
+    long countPending();
+
+    /**
+     * 最早的未投递事件的创建时间
+     */
+    LocalDateTime selectOldestPendingTime();
+
+    /**
+     * 删除早于指定时间的已投递事件
+     */
+    int deleteDone(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,67 @@
+package com.pfcbuy.payment.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.pfcbuy.payment.entity.WebhookInbox;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Webhook收件箱 Mapper 接口
+ *
+ * @author PfcBuy Team
+ */
+@Mapper
+public interface WebhookInboxMapper extends BaseMapper<WebhookInbox> {
+
+    /**
+     * 写入事件，事件ID已存在时忽略
+     *
+     * @return 1-已写入 0-重复事件
+     */
+    int insertIgnore(WebhookInbox inbox);
+
+    /**
+     * 查询可领取的事件ID：已到处理时间，且同一分区没有更早的未完成事件
+     */
+    List<Long> selectClaimableIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 领取事件（条件UPDATE，多个实例同时领取时只有一个生效）
+     */
+    int claim(@Param("ids") List<Long> ids,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * 查询本批次领取到的事件，按ID升序
+     */
+    List<WebhookInbox> selectClaimed(@Param("owner") String owner);
+
+    /**
+     * 标记已处理
+     */
+    int markDone(@Param("ids") List<Long> ids, @Param("owner") String owner);
+
+    /**
+     * 记录处理失败，等待重试或标记为DEAD
+     */
+    int markFailed(@Param("id") Long id,
+                   @Param("owner") String owner,
+                   @Param("status") String status,
+                   @Param("nextAttemptTime") LocalDateTime nextAttemptTime,
+                   @Param("lastError") String lastError);
+
+    /**
+     * 释放已领取但未处理的事件
+     */
+    int release(@Param("ids") List<Long> ids, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * 删除早于指定时间的已处理事件
+     */
+    int deleteDone(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,26 @@
+package com.pfcbuy.payment.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 订单已支付消息
+ *
+ * @author PfcBuy Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPaidMessage {
+
+    /**
+     * 订单号
+     */
+    private String orderNo;
+
+    /**
+     * 支付流水号
+     */
+    private String paymentNo;
+}
@@ -0,0 +1,78 @@
+package com.pfcbuy.payment.outbox;
+
+import com.pfcbuy.common.metrics.LatencyHistogram;
+import com.pfcbuy.payment.mapper.PaymentOutboxMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 发件箱投递指标
+ * <p>
+ * 投递延迟为事件写入到订单服务确认的时间，积压情况实时从数据库查询。
+ *
+ * @author PfcBuy Team
+ */
+@Component
+public class PaymentOutboxMetrics {
+
+    private final LatencyHistogram lag = new LatencyHistogram(6, 10_000L);
+
+    private final LongAdder delivered = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder dead = new LongAdder();
+
+    private final PaymentOutboxMapper paymentOutboxMapper;
+
+    public PaymentOutboxMetrics(PaymentOutboxMapper paymentOutboxMapper) {
+        this.paymentOutboxMapper = paymentOutboxMapper;
+    }
+
+    /**
+     * 记录一次投递成功
+     *
+     * @param createTime 事件写入时间
+     * @param deliveredTime 投递成功时间
+     */
+    public void recordDelivered(LocalDateTime createTime, LocalDateTime deliveredTime) {
+        lag.record(TimeUnit.MILLISECONDS.toMicros(Duration.between(createTime, deliveredTime).toMillis()),
+                System.currentTimeMillis());
+        delivered.increment();
+    }
+
+    /**
+     * 记录一次投递失败
+     *
+     * @param isDead 是否已放弃重试
+     */
+    public void recordFailed(boolean isDead) {
+        failed.increment();
+        if (isDead) {
+            dead.increment();
+        }
+    }
+
+    /**
+     * 投递统计和积压情况
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("delivered", delivered.sum());
+        stats.put("failed", failed.sum());
+        stats.put("dead", dead.sum());
+        stats.put("lag", lag.snapshot(System.currentTimeMillis()));
+
+        LocalDateTime oldest = paymentOutboxMapper.selectOldestPendingTime();
+        stats.put("pending", paymentOutboxMapper.countPending());
+        stats.put("oldestPendingAgeMs", oldest == null ? 0L
+                : Math.max(Duration.between(oldest, LocalDateTime.now()).toMillis(), 0L));
+        return stats;
+    }
+}
@@ -0,0 +1,49 @@
+package com.pfcbuy.payment.outbox;
+
+import com.pfcbuy.common.utils.JsonUtil;
+import com.pfcbuy.payment.entity.Payment;
+import com.pfcbuy.payment.entity.PaymentOutbox;
+import com.pfcbuy.payment.mapper.PaymentOutboxMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * 支付事件发件箱
+ * <p>
+ * 与支付状态更新在同一事务中写入，事务提交后由 {@link com.pfcbuy.payment.task.PaymentOutboxRelay}
+ * 投递到订单服务；事务回滚则事件一并丢弃。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentOutboxService {
+
+    private final PaymentOutboxMapper paymentOutboxMapper;
+
+    /**
+     * 记录订单已支付事件（必须在更新支付状态的事务中调用）
+     *
+     * @param payment 已支付的支付记录
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPaid(Payment payment) {
+        LocalDateTime now = LocalDateTime.now();
+        PaymentOutbox outbox = new PaymentOutbox();
+        outbox.setEventKey(PaymentOutbox.TYPE_ORDER_PAID + ":" + payment.getPaymentNo());
+        outbox.setEventType(PaymentOutbox.TYPE_ORDER_PAID);
+        outbox.setPayload(JsonUtil.toJson(new OrderPaidMessage(payment.getOrderNo(), payment.getPaymentNo())));
+        outbox.setNextAttemptTime(now);
+        outbox.setCreateTime(now);
+
+        if (paymentOutboxMapper.insertIgnore(outbox) == 0) {
+            log.info("订单支付事件已存在，忽略: paymentNo={}", payment.getPaymentNo());
+        }
+    }
+}
@@ -1,11 +1,12 @@
 package com.pfcbuy.payment.service;
 
+import com.pfcbuy.common.page.CursorPage;
 import com.pfcbuy.payment.dto.CreatePaymentRequest;
 import com.pfcbuy.payment.dto.PaymentResponse;
 import com.pfcbuy.payment.entity.Payment;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 支付服务接口
@@ -16,16 +17,16 @@ import java.util.List;
 public interface PaymentService {
 
     /**
-     * 创建支付
+     * 异步创建支付（在支付渠道线程池中调用第三方，不阻塞调用线程）
      *
      * @param request 支付请求
      * @param userId  用户ID
      * @return 支付响应
      */
-    PaymentResponse createPayment(CreatePaymentRequest request, Long userId);
+    CompletableFuture<PaymentResponse> createPaymentAsync(CreatePaymentRequest request, Long userId);
 
     /**
-     * 根据订单号获取支付信息
+     * 根据订单号获取最近一次支付信息
      *
      * @param orderNo 订单号
      * @return 支付信息
@@ -44,9 +45,11 @@ public interface PaymentService {
      * 根据用户ID获取支付列表
      *
      * @param userId 用户ID
-     * @return 支付列表
+     * @param cursor 游标，首页为null
+     * @param size   每页条数
+     * @return 支付列表和下一页游标
      */
-    List<PaymentResponse> getPaymentsByUserId(Long userId);
+    CursorPage<PaymentResponse> getPaymentsByUserId(Long userId, String cursor, Integer size);
 
     /**
      * 处理支付成功
@@ -3,10 +3,12 @@ package com.pfcbuy.payment.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 
-import com.pfcbuy.common.enums.PaymentChannel;
 import com.pfcbuy.common.enums.PaymentStatus;
 import com.pfcbuy.common.exception.BusinessException;
 import com.pfcbuy.common.exception.NotFoundException;
+import com.pfcbuy.common.id.IdGenerator;
+import com.pfcbuy.common.page.CursorPage;
+import com.pfcbuy.common.page.KeysetPagination;
 import com.pfcbuy.common.utils.JsonUtil;
 import com.pfcbuy.payment.channel.PaymentChannelFactory;
 import com.pfcbuy.payment.channel.PaymentChannelService;
@@ -16,19 +18,20 @@ import com.pfcbuy.payment.entity.Payment;
 import com.pfcbuy.payment.feign.OrderDTO;
 import com.pfcbuy.payment.feign.OrderFeignClient;
 import com.pfcbuy.payment.mapper.PaymentMapper;
+import com.pfcbuy.payment.outbox.PaymentOutboxService;
 import com.pfcbuy.payment.service.PaymentService;
 import com.pfcbuy.payment.service.StripeService;
 import com.stripe.model.PaymentIntent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 支付服务实现类
@@ -42,25 +45,26 @@ import java.util.stream.Collectors;
 public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentMapper paymentMapper;
+    private final IdGenerator idGenerator;
     private final PaymentChannelFactory channelFactory;
     private final StripeService stripeService; // 保留以支持Stripe特定功能
     private final OrderFeignClient orderFeignClient;
+    private final PaymentOutboxService paymentOutboxService;
+    private final ThreadPoolTaskExecutor paymentChannelExecutor;
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public PaymentResponse createPayment(CreatePaymentRequest request, Long userId) {
-        log.info("创建支付: orderNo={}, amount={}, currency={}, channel={}",
+    public CompletableFuture<PaymentResponse> createPaymentAsync(CreatePaymentRequest request, Long userId) {
+        log.info("异步创建支付: orderNo={}, amount={}, currency={}, channel={}",
                 request.getOrderNo(), request.getAmount(), request.getCurrency(), request.getPaymentChannel());
 
-        // 1. 设置用户ID
         request.setUserId(userId);
-
-        // 2. 获取支付渠道服务
-        PaymentChannel channel = PaymentChannel.fromCode(request.getPaymentChannel());
-        PaymentChannelService channelService = channelFactory.getService(channel);
-
-        // 3. 调用渠道服务创建支付
-        return channelService.createPayment(request);
+        PaymentChannelService channelService = channelFactory.getService(request.getPaymentChannel());
+        try {
+            return channelService.createPaymentAsync(request, paymentChannelExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("支付渠道线程池已满，拒绝创建支付: orderNo={}", request.getOrderNo());
+            return CompletableFuture.failedFuture(new BusinessException("支付渠道繁忙，请稍后重试"));
+        }
     }
 
     @Override
@@ -68,6 +72,7 @@ public class PaymentServiceImpl implements PaymentService {
         Payment payment = paymentMapper.selectOne(
                 new LambdaQueryWrapper<Payment>()
                         .eq(Payment::getOrderNo, orderNo)
+                        .orderByDesc(Payment::getCreateTime, Payment::getId)
                         .last("LIMIT 1")
         );
         if (payment == null) {
@@ -86,15 +91,10 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
-    public List<PaymentResponse> getPaymentsByUserId(Long userId) {
-        List<Payment> payments = paymentMapper.selectList(
-                new LambdaQueryWrapper<Payment>()
-                        .eq(Payment::getUserId, userId)
-                        .orderByDesc(Payment::getCreateTime)
-        );
-        return payments.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<PaymentResponse> getPaymentsByUserId(Long userId, String cursor, Integer size) {
+        CursorPage<Payment> payments = KeysetPagination.select(paymentMapper,
+                new LambdaQueryWrapper<Payment>().eq(Payment::getUserId, userId), cursor, size);
+        return payments.map(this::convertToResponse);
     }
 
     @Override
@@ -105,6 +105,7 @@ public class PaymentServiceImpl implements PaymentService {
         Payment payment = paymentMapper.selectOne(
                 new LambdaQueryWrapper<Payment>()
                         .eq(Payment::getStripePaymentIntentId, paymentIntentId)
+                        .orderByDesc(Payment::getCreateTime, Payment::getId)
                         .last("LIMIT 1")
         );
         if (payment == null) {
@@ -112,24 +113,24 @@ public class PaymentServiceImpl implements PaymentService {
             return;
         }
 
-        // 更新支付状态为成功
-        paymentMapper.update(null,
+        // 更新支付状态为成功（已是成功状态时不再更新，重复回调不会重复通知）
+        int updated = paymentMapper.update(null,
                 new LambdaUpdateWrapper<Payment>()
                         .eq(Payment::getId, payment.getId())
+                        .ne(Payment::getStatus, PaymentStatus.PAID.getCode())
                         .set(Payment::getStatus, PaymentStatus.PAID.getCode())
                         .set(Payment::getStripeChargeId, chargeId)
                         .set(Payment::getPaidAt, LocalDateTime.now())
                         .set(Payment::getUpdateTime, LocalDateTime.now())
         );
-
-        // 通知订单服务更新订单状态
-        try {
-            orderFeignClient.updatePaymentStatus(payment.getOrderNo(), payment.getPaymentNo());
-            log.info("已通知订单服务更新支付状态: orderNo={}", payment.getOrderNo());
-        } catch (Exception e) {
-            log.error("通知订单服务失败: {}", e.getMessage(), e);
-            // 这里可以加入重试机制或消息队列
+        if (updated == 0) {
+            log.info("支付已处理，跳过: paymentNo={}", payment.getPaymentNo());
+            return;
         }
+
+        // 与支付状态同一事务记录订单通知，由发件箱中继投递到订单服务
+        paymentOutboxService.orderPaid(payment);
+        log.info("支付成功处理完成，等待通知订单服务: orderNo={}", payment.getOrderNo());
     }
 
     @Override
@@ -140,6 +141,7 @@ public class PaymentServiceImpl implements PaymentService {
         Payment payment = paymentMapper.selectOne(
                 new LambdaQueryWrapper<Payment>()
                         .eq(Payment::getStripePaymentIntentId, paymentIntentId)
+                        .orderByDesc(Payment::getCreateTime, Payment::getId)
                         .last("LIMIT 1")
         );
         if (payment == null) {
@@ -147,10 +149,20 @@ public class PaymentServiceImpl implements PaymentService {
             return;
         }
 
-        payment.setStatus(PaymentStatus.FAILED.getCode());
-        payment.setFailureReason(failureReason);
-        payment.setUpdateTime(LocalDateTime.now());
-        paymentMapper.updateById(payment);
+        // 条件更新，乱序或重放的失败事件不能覆盖已支付、已退款的记录
+        int updated = paymentMapper.update(null,
+                new LambdaUpdateWrapper<Payment>()
+                        .eq(Payment::getId, payment.getId())
+                        .notIn(Payment::getStatus, PaymentStatus.PAID.getCode(), PaymentStatus.REFUNDED.getCode())
+                        .set(Payment::getStatus, PaymentStatus.FAILED.getCode())
+                        .set(Payment::getFailureReason, failureReason)
+                        .set(Payment::getUpdateTime, LocalDateTime.now())
+        );
+        if (updated == 0) {
+            log.warn("支付已成功或已退款，忽略失败事件: paymentNo={}, status={}",
+                    payment.getPaymentNo(), payment.getStatus());
+            return;
+        }
 
         log.info("支付失败记录已更新: paymentNo={}", payment.getPaymentNo());
     }
@@ -228,7 +240,7 @@ public class PaymentServiceImpl implements PaymentService {
      * 生成支付流水号
      */
     private String generatePaymentNo() {
-        return "PAY" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return idGenerator.nextNo("PAY");
     }
 
     /**
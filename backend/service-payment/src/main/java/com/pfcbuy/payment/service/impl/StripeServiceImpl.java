@@ -1,5 +1,6 @@
 package com.pfcbuy.payment.service.impl;
 
+import com.google.gson.JsonParseException;
 import com.pfcbuy.common.exception.BusinessException;
 import com.pfcbuy.payment.config.StripeConfig;
 import com.pfcbuy.payment.dto.CreatePaymentRequest;
@@ -132,11 +133,18 @@ public class StripeServiceImpl implements StripeService {
     public Event constructWebhookEvent(String payload, String signature) {
         try {
             Event event = Webhook.constructEvent(payload, signature, stripeConfig.getWebhookSecret());
+            if (event == null || event.getId() == null) {
+                throw new JsonParseException("缺少事件ID");
+            }
             log.info("成功验证 Webhook 事件: {}", event.getType());
             return event;
         } catch (SignatureVerificationException e) {
             log.error("Webhook 签名验证失败: {}", e.getMessage());
             throw new BusinessException("Webhook 签名验证失败");
+        } catch (JsonParseException e) {
+            // 格式错误的请求重试也不会成功，按400应答避免第三方无限重推
+            log.error("Webhook 事件解析失败: {}", e.getMessage());
+            throw new BusinessException("Webhook 事件格式错误");
         }
     }
 
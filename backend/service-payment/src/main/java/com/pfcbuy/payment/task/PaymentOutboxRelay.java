@@ -0,0 +1,222 @@
+package com.pfcbuy.payment.task;
+
+import com.pfcbuy.common.exception.BusinessException;
+import com.pfcbuy.common.id.IdGenerator;
+import com.pfcbuy.common.result.Result;
+import com.pfcbuy.common.utils.JsonUtil;
+import com.pfcbuy.payment.config.PaymentOutboxProperties;
+import com.pfcbuy.payment.entity.PaymentOutbox;
+import com.pfcbuy.payment.feign.OrderFeignClient;
+import com.pfcbuy.payment.mapper.PaymentOutboxMapper;
+import com.pfcbuy.payment.outbox.OrderPaidMessage;
+import com.pfcbuy.payment.outbox.PaymentOutboxMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * 发件箱中继
+ * <p>
+ * 按批领取待投递事件并发投递到订单服务，请求头携带幂等键；成功的事件一次性批量标记。
+ * 失败按指数退避重试，超过最大次数或被订单服务拒绝（如订单已取消）标记为DEAD，需人工处理。
+ * 实例宕机时已领取的事件在租约到期后被重新领取，订单服务对重复通知是幂等的。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "payment.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentOutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final PaymentOutboxMapper paymentOutboxMapper;
+
+    private final OrderFeignClient orderFeignClient;
+
+    private final PaymentOutboxMetrics metrics;
+
+    private final IdGenerator idGenerator;
+
+    private final PaymentOutboxProperties properties;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    public PaymentOutboxRelay(PaymentOutboxMapper paymentOutboxMapper,
+                              OrderFeignClient orderFeignClient,
+                              PaymentOutboxMetrics metrics,
+                              IdGenerator idGenerator,
+                              PaymentOutboxProperties properties) {
+        this.paymentOutboxMapper = paymentOutboxMapper;
+        this.orderFeignClient = orderFeignClient;
+        this.metrics = metrics;
+        this.idGenerator = idGenerator;
+        this.properties = properties;
+
+        // 每批最多 batchSize 个事件，队列不会溢出
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setQueueCapacity(properties.getBatchSize());
+        executor.setThreadNamePrefix("payment-outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    /**
+     * 投递到期的事件
+     */
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-interval:500}")
+    public void relay() {
+        List<PaymentOutbox> claimed;
+        do {
+            try {
+                claimed = claim();
+            } catch (Exception e) {
+                log.warn("领取发件箱事件失败: {}", e.getMessage());
+                return;
+            }
+            deliver(claimed);
+        } while (!claimed.isEmpty());
+    }
+
+    /**
+     * 删除超过保留时长的已投递事件
+     */
+    @Scheduled(initialDelayString = "${payment.outbox.purge-interval:3600000}",
+            fixedDelayString = "${payment.outbox.purge-interval:3600000}")
+    public void purgeDone() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getRetention());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = paymentOutboxMapper.deleteDone(before, PURGE_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        if (total > 0) {
+            log.info("已清理发件箱事件: {}个", total);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private List<PaymentOutbox> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = paymentOutboxMapper.selectClaimableIds(now, properties.getBatchSize());
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String owner = Long.toString(idGenerator.nextId());
+        if (paymentOutboxMapper.claim(ids, owner, now, now.plus(properties.getLease())) == 0) {
+            return Collections.emptyList();
+        }
+        return paymentOutboxMapper.selectClaimed(owner);
+    }
+
+    private void deliver(List<PaymentOutbox> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        String owner = events.get(0).getClaimOwner();
+        List<CompletableFuture<Long>> futures = events.stream()
+                .map(event -> CompletableFuture.supplyAsync(() -> deliverOne(event), executor))
+                .collect(Collectors.toList());
+        List<Long> done = futures.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        if (!done.isEmpty()) {
+            LocalDateTime deliveredTime = LocalDateTime.now();
+            try {
+                paymentOutboxMapper.markDone(done, owner, deliveredTime);
+            } catch (Exception e) {
+                // 未能标记的事件在租约到期后重新投递，订单服务对重复通知是幂等的
+                log.error("标记发件箱事件已投递失败: count={}", done.size(), e);
+                return;
+            }
+            Set<Long> doneIds = new HashSet<>(done);
+            events.stream()
+                    .filter(event -> doneIds.contains(event.getId()))
+                    .forEach(event -> metrics.recordDelivered(event.getCreateTime(), deliveredTime));
+        }
+        log.debug("发件箱批次投递完成: 事件{}个, 成功{}个", events.size(), done.size());
+    }
+
+    /**
+     * 投递单个事件
+     *
+     * @return 成功返回事件ID，失败返回null
+     */
+    private Long deliverOne(PaymentOutbox event) {
+        try {
+            if (!PaymentOutbox.TYPE_ORDER_PAID.equals(event.getEventType())) {
+                markFailed(event, new BusinessException("未知的事件类型: " + event.getEventType()), true);
+                return null;
+            }
+            OrderPaidMessage message = JsonUtil.fromJson(event.getPayload(), OrderPaidMessage.class);
+            Result<Boolean> result = orderFeignClient.updatePaymentStatus(
+                    message.getOrderNo(), message.getPaymentNo(), event.getEventKey());
+            if (result == null || !result.isSuccess()) {
+                throw new BusinessException("订单服务返回失败: " + (result == null ? null : result.getMessage()));
+            }
+            if (!Boolean.TRUE.equals(result.getData())) {
+                markFailed(event, new BusinessException("订单状态不允许支付: orderNo=" + message.getOrderNo()), true);
+                return null;
+            }
+            return event.getId();
+        } catch (Exception e) {
+            try {
+                markFailed(event, e, false);
+            } catch (Exception ex) {
+                log.error("记录发件箱投递失败出错: eventKey={}", event.getEventKey(), ex);
+            }
+            return null;
+        }
+    }
+
+    private void markFailed(PaymentOutbox event, Exception e, boolean rejected) {
+        int attempts = event.getAttempts() + 1;
+        boolean dead = rejected || attempts >= properties.getMaxAttempts();
+        LocalDateTime nextAttemptTime = dead ? LocalDateTime.now() : LocalDateTime.now().plus(backoff(attempts));
+        String error = String.valueOf(e);
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        paymentOutboxMapper.markFailed(event.getId(), event.getClaimOwner(),
+                dead ? PaymentOutbox.STATUS_DEAD : PaymentOutbox.STATUS_PENDING, nextAttemptTime, error);
+        metrics.recordFailed(dead);
+
+        if (dead) {
+            log.error("发件箱事件投递失败，需人工处理: eventKey={}, attempts={}, error={}",
+                    event.getEventKey(), attempts, e.getMessage());
+        } else {
+            log.warn("发件箱事件投递失败，将于{}重试: eventKey={}, attempts={}, error={}",
+                    nextAttemptTime, event.getEventKey(), attempts, e.getMessage());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = properties.getRetryBaseDelay().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getRetryMaxDelay()) > 0 ? properties.getRetryMaxDelay() : delay;
+    }
+}
@@ -0,0 +1,199 @@
+package com.pfcbuy.payment.task;
+
+import com.pfcbuy.common.id.IdGenerator;
+import com.pfcbuy.payment.config.WebhookInboxProperties;
+import com.pfcbuy.payment.entity.WebhookInbox;
+import com.pfcbuy.payment.mapper.WebhookInboxMapper;
+import com.pfcbuy.payment.webhook.WebhookEventDispatcher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Webhook收件箱处理
+ * <p>
+ * 按批领取到期事件，同一支付（分区）的事件在一个线程内按到达顺序处理，不同支付并行处理。
+ * 某个事件失败后按指数退避重试，同分区后续事件放回队列，等它处理完成后再处理；
+ * 超过最大次数标记为DEAD。实例宕机时已领取的事件在租约到期后被重新领取。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "payment.webhook-inbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WebhookInboxProcessor {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final WebhookInboxMapper webhookInboxMapper;
+
+    private final WebhookEventDispatcher dispatcher;
+
+    private final IdGenerator idGenerator;
+
+    private final WebhookInboxProperties properties;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    public WebhookInboxProcessor(WebhookInboxMapper webhookInboxMapper,
+                                 WebhookEventDispatcher dispatcher,
+                                 IdGenerator idGenerator,
+                                 WebhookInboxProperties properties) {
+        this.webhookInboxMapper = webhookInboxMapper;
+        this.dispatcher = dispatcher;
+        this.idGenerator = idGenerator;
+        this.properties = properties;
+
+        // 每批最多 batchSize 个分区，队列不会溢出
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setQueueCapacity(properties.getBatchSize());
+        executor.setThreadNamePrefix("webhook-inbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    /**
+     * 处理收件箱中到期的事件
+     */
+    @Scheduled(fixedDelayString = "${payment.webhook-inbox.poll-interval:500}")
+    public void drain() {
+        List<WebhookInbox> claimed;
+        do {
+            try {
+                claimed = claim();
+            } catch (Exception e) {
+                log.warn("领取Webhook事件失败: {}", e.getMessage());
+                return;
+            }
+            process(claimed);
+        } while (!claimed.isEmpty());
+    }
+
+    /**
+     * 删除超过保留时长的已处理事件
+     */
+    @Scheduled(initialDelayString = "${payment.webhook-inbox.purge-interval:3600000}",
+            fixedDelayString = "${payment.webhook-inbox.purge-interval:3600000}")
+    public void purgeDone() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getRetention());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = webhookInboxMapper.deleteDone(before, PURGE_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        if (total > 0) {
+            log.info("已清理Webhook事件: {}个", total);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private List<WebhookInbox> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = webhookInboxMapper.selectClaimableIds(now, properties.getBatchSize());
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String owner = Long.toString(idGenerator.nextId());
+        if (webhookInboxMapper.claim(ids, owner, now, now.plus(properties.getLease())) == 0) {
+            return Collections.emptyList();
+        }
+        return webhookInboxMapper.selectClaimed(owner);
+    }
+
+    private void process(List<WebhookInbox> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<String, List<WebhookInbox>> partitions = events.stream()
+                .collect(Collectors.groupingBy(event -> event.getProvider() + ":" + event.getPartitionKey(),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        CompletableFuture<?>[] futures = partitions.values().stream()
+                .map(partition -> CompletableFuture.runAsync(() -> processPartition(partition), executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+        log.debug("Webhook事件批次处理完成: 事件{}个, 分区{}个", events.size(), partitions.size());
+    }
+
+    private void processPartition(List<WebhookInbox> partition) {
+        String owner = partition.get(0).getClaimOwner();
+        List<Long> done = new ArrayList<>(partition.size());
+        try {
+            for (int i = 0; i < partition.size(); i++) {
+                WebhookInbox event = partition.get(i);
+                try {
+                    dispatcher.dispatch(event);
+                    done.add(event.getId());
+                } catch (Exception e) {
+                    markDone(done, owner);
+                    markFailed(event, owner, e);
+                    List<Long> remaining = partition.subList(i + 1, partition.size()).stream()
+                            .map(WebhookInbox::getId)
+                            .collect(Collectors.toList());
+                    if (!remaining.isEmpty()) {
+                        webhookInboxMapper.release(remaining, owner, LocalDateTime.now());
+                    }
+                    return;
+                }
+            }
+            markDone(done, owner);
+        } catch (Exception e) {
+            // 状态未能更新的事件在租约到期后重新处理，处理逻辑是幂等的
+            log.error("更新Webhook事件状态失败: partition={}", partition.get(0).getPartitionKey(), e);
+        }
+    }
+
+    private void markDone(List<Long> ids, String owner) {
+        if (!ids.isEmpty()) {
+            webhookInboxMapper.markDone(ids, owner);
+        }
+    }
+
+    private void markFailed(WebhookInbox event, String owner, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        boolean dead = attempts >= properties.getMaxAttempts();
+        LocalDateTime nextAttemptTime = dead ? LocalDateTime.now() : LocalDateTime.now().plus(backoff(attempts));
+        String error = String.valueOf(e);
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        webhookInboxMapper.markFailed(event.getId(), owner,
+                dead ? WebhookInbox.STATUS_DEAD : WebhookInbox.STATUS_PENDING, nextAttemptTime, error);
+
+        if (dead) {
+            log.error("Webhook事件处理失败次数超限，需人工处理: provider={}, eventId={}, attempts={}",
+                    event.getProvider(), event.getEventId(), attempts, e);
+        } else {
+            log.warn("Webhook事件处理失败，将于{}重试: provider={}, eventId={}, attempts={}, error={}",
+                    nextAttemptTime, event.getProvider(), event.getEventId(), attempts, e.getMessage());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = properties.getRetryBaseDelay().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getRetryMaxDelay()) > 0 ? properties.getRetryMaxDelay() : delay;
+    }
+}
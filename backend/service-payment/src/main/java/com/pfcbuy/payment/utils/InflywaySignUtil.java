@@ -4,11 +4,11 @@ import com.pfcbuy.common.utils.JsonUtil;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.stream.Collectors;
 
 /**
  * 飞来汇签名工具类
@@ -20,12 +20,25 @@ import java.util.stream.Collectors;
  * 4. 拼接成字符串: secret + key1 + value1 + key2 + value2...
  * 5. 使用SHA-256加密并转大写
  *
+ * 创建支付单、支付结果、退款三种签名的字段固定，按预先排好序的字段直接写入摘要，
+ * 不构建Map和拼接字符串；摘要对象和缓冲区按线程复用，签名比对使用恒定时间比较。
+ *
  * @author PfcBuy Team
  * @since 2024-02-04
  */
 @Slf4j
 public class InflywaySignUtil {
 
+    private static final byte[] AMOUNT = ascii("amount");
+    private static final byte[] CURRENCY = ascii("currency");
+    private static final byte[] INVOICE_ID = ascii("invoice_id");
+    private static final byte[] MERCHANT_ID = ascii("merchant_id");
+    private static final byte[] PAYMENT_ORDER_ID = ascii("payment_order_id");
+    private static final byte[] STATUS = ascii("status");
+    private static final byte[] REFUND_AMOUNT = ascii("refund_amount");
+
+    private static final ThreadLocal<Signer> SIGNER = ThreadLocal.withInitial(Signer::new);
+
     /**
      * 生成飞来汇签名（SHA-256方式）
      *
@@ -33,55 +46,14 @@ public class InflywaySignUtil {
      * - 创建支付单: amount + currency + invoice_id + merchant_id
      * - 支付结果: amount + currency + invoice_id + merchant_id + payment_order_id + status
      * - 退款: currency + invoice_id + merchant_id + refund_amount
+     * 以上三种请使用对应的专用方法，本方法用于字段不固定的参数。
      *
-     * @param params    参数Map（已按顺序）
+     * @param params    参数Map
      * @param apiSecret API密钥
      * @return 签名字符串（大写）
      */
     public static String generateSign(Map<String, Object> params, String apiSecret) {
-        try {
-            // 1. 过滤空值和hash字段
-            Map<String, Object> filteredParams = params.entrySet().stream()
-                    .filter(entry -> entry.getValue() != null
-                            && !"hash".equals(entry.getKey())
-                            && !"".equals(String.valueOf(entry.getValue()).trim()))
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-            // 2. 按key升序排列
-            TreeMap<String, Object> sortedParams = new TreeMap<>(filteredParams);
-
-            // 3. 拼接字符串：secret + key1 + value1 + key2 + value2
-            StringBuilder signBuilder = new StringBuilder(apiSecret);
-            for (Map.Entry<String, Object> entry : sortedParams.entrySet()) {
-                signBuilder.append(entry.getKey()).append(entry.getValue());
-            }
-
-            String signStr = signBuilder.toString();
-            log.debug("签名原始字符串: {}", signStr);
-
-            // 4. SHA-256加密
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(signStr.getBytes(StandardCharsets.UTF_8));
-
-            // 5. 转为16进制大写字符串
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-
-            String sign = hexString.toString().toUpperCase();
-            log.debug("生成的签名: {}", sign);
-
-        return sign;
-
-        } catch (NoSuchAlgorithmException e) {
-            log.error("SHA-256算法不可用", e);
-            throw new RuntimeException("签名生成失败", e);
-        }
+        return feed(params, apiSecret).toHex();
     }
 
     /**
@@ -90,31 +62,36 @@ public class InflywaySignUtil {
      */
     public static String createPaymentSign(String amount, String currency, String invoiceId,
                                            String merchantId, String apiSecret) {
-        Map<String, Object> params = new TreeMap<>();
-        params.put("amount", amount);
-        params.put("currency", currency);
-        params.put("invoice_id", invoiceId);
-        params.put("merchant_id", merchantId);
-
-        return generateSign(params, apiSecret);
+        return SIGNER.get().begin(apiSecret)
+                .field(AMOUNT, amount)
+                .field(CURRENCY, currency)
+                .field(INVOICE_ID, invoiceId)
+                .field(MERCHANT_ID, merchantId)
+                .toHex();
     }
 
     /**
-     * 支付结果验签
+     * 支付结果签名
      * 签名字段: amount + currency + invoice_id + merchant_id + payment_order_id + status
      */
     public static String paymentResultSign(String amount, String currency, String invoiceId,
                                            String merchantId, String paymentOrderId,
                                            String status, String apiSecret) {
-        Map<String, Object> params = new TreeMap<>();
-        params.put("amount", amount);
-        params.put("currency", currency);
-        params.put("invoice_id", invoiceId);
-        params.put("merchant_id", merchantId);
-        params.put("payment_order_id", paymentOrderId);
-        params.put("status", status);
-
-        return generateSign(params, apiSecret);
+        return paymentResult(amount, currency, invoiceId, merchantId, paymentOrderId, status, apiSecret)
+                .toHex();
+    }
+
+    /**
+     * 支付结果验签
+     *
+     * @param hash 回调中的签名（大小写均可）
+     * @return 是否验证通过
+     */
+    public static boolean verifyPaymentResultSign(String amount, String currency, String invoiceId,
+                                                  String merchantId, String paymentOrderId,
+                                                  String status, String hash, String apiSecret) {
+        return paymentResult(amount, currency, invoiceId, merchantId, paymentOrderId, status, apiSecret)
+                .matches(hash);
     }
 
     /**
@@ -123,13 +100,12 @@ public class InflywaySignUtil {
      */
     public static String refundSign(String currency, String invoiceId, String merchantId,
                                     String refundAmount, String apiSecret) {
-        Map<String, Object> params = new TreeMap<>();
-        params.put("currency", currency);
-        params.put("invoice_id", invoiceId);
-        params.put("merchant_id", merchantId);
-        params.put("refund_amount", refundAmount);
-
-        return generateSign(params, apiSecret);
+        return SIGNER.get().begin(apiSecret)
+                .field(CURRENCY, currency)
+                .field(INVOICE_ID, invoiceId)
+                .field(MERCHANT_ID, merchantId)
+                .field(REFUND_AMOUNT, refundAmount)
+                .toHex();
     }
 
     /**
@@ -141,13 +117,12 @@ public class InflywaySignUtil {
      * @return 是否验证通过
      */
     public static boolean verifySign(Map<String, Object> params, String sign, String apiSecret) {
-        String calculatedSign = generateSign(params, apiSecret);
-        boolean valid = calculatedSign.equalsIgnoreCase(sign);
+        boolean valid = feed(params, apiSecret).matches(sign);
 
         if (!valid) {
-            log.warn("签名验证失败！计算签名: {}, 接收签名: {}", calculatedSign, sign);
+            log.warn("签名验证失败！接收签名: {}", sign);
         }
-        
+
         return valid;
     }
 
@@ -176,4 +151,205 @@ public class InflywaySignUtil {
                 .encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
         return "Basic " + encoded;
     }
+
+    private static Signer paymentResult(String amount, String currency, String invoiceId,
+                                        String merchantId, String paymentOrderId,
+                                        String status, String apiSecret) {
+        return SIGNER.get().begin(apiSecret)
+                .field(AMOUNT, amount)
+                .field(CURRENCY, currency)
+                .field(INVOICE_ID, invoiceId)
+                .field(MERCHANT_ID, merchantId)
+                .field(PAYMENT_ORDER_ID, paymentOrderId)
+                .field(STATUS, status);
+    }
+
+    /**
+     * 按key升序写入任意参数（排除空值和hash字段）
+     */
+    private static Signer feed(Map<String, Object> params, String apiSecret) {
+        Signer signer = SIGNER.get().begin(apiSecret);
+        for (Map.Entry<String, Object> entry : new TreeMap<>(params).entrySet()) {
+            if (entry.getValue() != null && !"hash".equals(entry.getKey())) {
+                signer.field(entry.getKey(), String.valueOf(entry.getValue()));
+            }
+        }
+        return signer;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 线程内复用的签名器
+     */
+    private static final class Signer {
+
+        private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+        private static final int HASH_LENGTH = 32;
+
+        private final MessageDigest digest;
+
+        /**
+         * UTF-8编码缓冲区，写满后送入摘要
+         */
+        private final byte[] buffer = new byte[256];
+
+        private final byte[] hash = new byte[HASH_LENGTH];
+
+        private final byte[] expected = new byte[HASH_LENGTH];
+
+        private final char[] hex = new char[HASH_LENGTH * 2];
+
+        private int position;
+
+        private Signer() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                log.error("SHA-256算法不可用", e);
+                throw new IllegalStateException("签名生成失败", e);
+            }
+        }
+
+        private Signer begin(String apiSecret) {
+            digest.reset();
+            position = 0;
+            write(apiSecret);
+            return this;
+        }
+
+        /**
+         * 写入一个字段，空值跳过
+         */
+        private Signer field(byte[] key, String value) {
+            if (!isBlank(value)) {
+                flush();
+                digest.update(key);
+                write(value);
+            }
+            return this;
+        }
+
+        private Signer field(String key, String value) {
+            if (!isBlank(value)) {
+                write(key);
+                write(value);
+            }
+            return this;
+        }
+
+        /**
+         * 大写16进制签名
+         */
+        private String toHex() {
+            finish();
+            for (int i = 0; i < HASH_LENGTH; i++) {
+                hex[i * 2] = HEX[(hash[i] >> 4) & 0x0F];
+                hex[i * 2 + 1] = HEX[hash[i] & 0x0F];
+            }
+            return new String(hex);
+        }
+
+        /**
+         * 与16进制签名做恒定时间比较（不区分大小写）
+         */
+        private boolean matches(String sign) {
+            finish();
+            if (sign == null || sign.length() != HASH_LENGTH * 2) {
+                return false;
+            }
+            for (int i = 0; i < HASH_LENGTH; i++) {
+                int high = hexValue(sign.charAt(i * 2));
+                int low = hexValue(sign.charAt(i * 2 + 1));
+                if (high < 0 || low < 0) {
+                    return false;
+                }
+                expected[i] = (byte) ((high << 4) | low);
+            }
+            return MessageDigest.isEqual(hash, expected);
+        }
+
+        /**
+         * 只接受ASCII的 [0-9A-Fa-f]（Character.digit 还会接受全角等非ASCII数字）
+         */
+        private static int hexValue(char c) {
+            if (c >= '0' && c <= '9') {
+                return c - '0';
+            }
+            if (c >= 'A' && c <= 'F') {
+                return c - 'A' + 10;
+            }
+            if (c >= 'a' && c <= 'f') {
+                return c - 'a' + 10;
+            }
+            return -1;
+        }
+
+        private void finish() {
+            flush();
+            try {
+                digest.digest(hash, 0, HASH_LENGTH);
+            } catch (DigestException e) {
+                throw new IllegalStateException("签名生成失败", e);
+            }
+        }
+
+        /**
+         * 按UTF-8编码写入缓冲区（非法的代理字符按 '?' 处理，与 String.getBytes 一致）
+         */
+        private void write(String value) {
+            for (int i = 0, length = value.length(); i < length; i++) {
+                if (position > buffer.length - 4) {
+                    flush();
+                }
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    if (Character.isHighSurrogate(c) && i + 1 < length
+                            && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                        buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                        buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                        buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                        buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                    } else {
+                        buffer[position++] = '?';
+                    }
+                } else {
+                    buffer[position++] = (byte) (0xE0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        private void flush() {
+            if (position > 0) {
+                digest.update(buffer, 0, position);
+                position = 0;
+            }
+        }
+
+        /**
+         * 与 String.trim().isEmpty() 判断一致
+         */
+        private static boolean isBlank(String value) {
+            if (value == null) {
+                return true;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) > ' ') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
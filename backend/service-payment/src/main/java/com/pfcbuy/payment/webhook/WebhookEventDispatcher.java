@@ -0,0 +1,139 @@
+package com.pfcbuy.payment.webhook;
+
+import com.pfcbuy.common.enums.PaymentChannel;
+import com.pfcbuy.common.utils.JsonUtil;
+import com.pfcbuy.payment.channel.PaymentChannelFactory;
+import com.pfcbuy.payment.channel.PaymentChannelService;
+import com.pfcbuy.payment.dto.inflyway.InflywayNotifyRequest;
+import com.pfcbuy.payment.entity.WebhookInbox;
+import com.pfcbuy.payment.service.PaymentService;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
+import com.stripe.net.ApiResource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Webhook事件分发
+ * <p>
+ * 处理收件箱中的事件，抛出异常表示需要重试。各处理方法都是幂等的。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebhookEventDispatcher {
+
+    private final PaymentService paymentService;
+    private final PaymentChannelFactory channelFactory;
+
+    /**
+     * 处理事件
+     */
+    public void dispatch(WebhookInbox inbox) {
+        switch (PaymentChannel.fromCode(inbox.getProvider())) {
+            case STRIPE:
+                handleStripeEvent(ApiResource.GSON.fromJson(inbox.getPayload(), Event.class));
+                break;
+            case INFLYWAY:
+                handleInflywayNotify(inbox.getPayload());
+                break;
+            default:
+                log.warn("不支持的Webhook渠道: provider={}, eventId={}", inbox.getProvider(), inbox.getEventId());
+        }
+    }
+
+    /**
+     * 处理 Stripe 事件
+     */
+    private void handleStripeEvent(Event event) {
+        log.info("处理 Webhook 事件: type={}, id={}", event.getType(), event.getId());
+
+        StripeObject stripeObject = event.getDataObjectDeserializer().getObject().orElse(null);
+
+        switch (event.getType()) {
+            case "payment_intent.succeeded":
+                handlePaymentIntentSucceeded(stripeObject);
+                break;
+            case "payment_intent.payment_failed":
+                handlePaymentIntentFailed(stripeObject);
+                break;
+            case "payment_intent.canceled":
+                handlePaymentIntentCanceled(stripeObject);
+                break;
+            case "charge.refunded":
+                handleChargeRefunded(stripeObject);
+                break;
+            default:
+                log.info("未处理的事件类型: {}", event.getType());
+        }
+    }
+
+    /**
+     * 处理支付成功
+     */
+    private void handlePaymentIntentSucceeded(StripeObject stripeObject) {
+        if (stripeObject instanceof PaymentIntent) {
+            PaymentIntent paymentIntent = (PaymentIntent) stripeObject;
+            log.info("支付成功: paymentIntentId={}", paymentIntent.getId());
+
+            // 在较新版本的 Stripe SDK 中，Charge ID 可以从 latest_charge 获取
+            String chargeId = paymentIntent.getLatestCharge();
+
+            paymentService.handlePaymentSucceeded(paymentIntent.getId(), chargeId);
+        }
+    }
+
+    /**
+     * 处理支付失败
+     */
+    private void handlePaymentIntentFailed(StripeObject stripeObject) {
+        if (stripeObject instanceof PaymentIntent) {
+            PaymentIntent paymentIntent = (PaymentIntent) stripeObject;
+            log.info("支付失败: paymentIntentId={}", paymentIntent.getId());
+
+            String failureReason = paymentIntent.getLastPaymentError() != null
+                    ? paymentIntent.getLastPaymentError().getMessage()
+                    : "Unknown error";
+
+            paymentService.handlePaymentFailed(paymentIntent.getId(), failureReason);
+        }
+    }
+
+    /**
+     * 处理支付取消
+     */
+    private void handlePaymentIntentCanceled(StripeObject stripeObject) {
+        if (stripeObject instanceof PaymentIntent) {
+            PaymentIntent paymentIntent = (PaymentIntent) stripeObject;
+            log.info("支付取消: paymentIntentId={}", paymentIntent.getId());
+            // 可以在这里添加额外的处理逻辑
+        }
+    }
+
+    /**
+     * 处理退款
+     */
+    private void handleChargeRefunded(StripeObject stripeObject) {
+        log.info("收到退款事件");
+        // 退款逻辑已在 createRefund 方法中处理，这里可以做额外的通知
+    }
+
+    /**
+     * 处理飞来汇回调
+     */
+    private void handleInflywayNotify(String payload) {
+        InflywayNotifyRequest notify = JsonUtil.fromJson(payload, InflywayNotifyRequest.class);
+        PaymentChannelService channelService = channelFactory.getService(PaymentChannel.INFLYWAY);
+        if (notify.isPaid()) {
+            channelService.handlePaymentSuccess(payload);
+        } else if (notify.isFailed()) {
+            channelService.handlePaymentFailure(payload);
+        } else {
+            log.info("飞来汇回调状态无需处理: invoiceId={}, status={}", notify.getInvoiceId(), notify.getStatus());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.pfcbuy.payment.webhook;
+
+import com.pfcbuy.common.enums.PaymentChannel;
+import com.pfcbuy.payment.entity.WebhookInbox;
+import com.pfcbuy.payment.mapper.WebhookInboxMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Webhook收件箱
+ * <p>
+ * 回调验签后只写入收件箱就返回，由 {@link com.pfcbuy.payment.task.WebhookInboxProcessor} 异步处理。
+ * 按 (渠道, 事件ID) 唯一，第三方重复推送的事件只会被处理一次。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WebhookInboxService {
+
+    private final WebhookInboxMapper webhookInboxMapper;
+
+    /**
+     * 写入事件
+     *
+     * @param channel      支付渠道
+     * @param eventId      第三方事件ID
+     * @param eventType    事件类型
+     * @param partitionKey 分区键（同一支付的事件按顺序处理）
+     * @param payload      原始回调内容
+     * @return true-新事件 false-重复事件
+     */
+    public boolean append(PaymentChannel channel, String eventId, String eventType,
+                          String partitionKey, String payload) {
+        WebhookInbox inbox = new WebhookInbox();
+        inbox.setProvider(channel.getCode());
+        inbox.setEventId(eventId);
+        inbox.setEventType(eventType);
+        inbox.setPartitionKey(partitionKey);
+        inbox.setPayload(payload);
+        inbox.setNextAttemptTime(LocalDateTime.now());
+
+        boolean appended = webhookInboxMapper.insertIgnore(inbox) > 0;
+        if (appended) {
+            log.info("Webhook事件已入收件箱: channel={}, eventId={}, type={}", channel, eventId, eventType);
+        } else {
+            log.info("重复的Webhook事件，忽略: channel={}, eventId={}", channel, eventId);
+        }
+        return appended;
+    }
+}
@@ -0,0 +1,145 @@
+package com.pfcbuy.payment.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 飞来汇签名一致性测试：新实现与改造前的实现输出必须完全一致
+ *
+ * @author PfcBuy Team
+ */
+class InflywaySignUtilTest {
+
+    private static final String SECRET = "secret-key-abcdef";
+
+    /**
+     * 空值、空白、多字节字符、合法代理对、孤立代理字符
+     */
+    private static final String[] EDGE_VALUES = {
+            null, "", " ", "\t\n ", " 100.00 ", "USD", "中文值", "é", "emoji😀x", "\uD800bad", "bad\uDC00", "\uD83D",
+            "a b", "hash"
+    };
+
+    private static final int RANDOM_CASES = 20_000;
+
+    @Test
+    void edgeValuesMatchLegacy() {
+        for (String a : EDGE_VALUES) {
+            for (String b : EDGE_VALUES) {
+                assertAllMatch(new String[]{a, b, "PFC123", b, a, "01", a}, SECRET);
+                assertAllMatch(new String[]{b, a, a, "M0001", b, a, b}, a == null ? SECRET : SECRET + a);
+            }
+        }
+    }
+
+    @Test
+    void randomValuesMatchLegacy() {
+        Random random = new Random(20241018L);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            String[] values = new String[7];
+            for (int j = 0; j < values.length; j++) {
+                values[j] = random.nextInt(4) == 0
+                        ? EDGE_VALUES[random.nextInt(EDGE_VALUES.length)]
+                        : randomString(random);
+            }
+            // 长密钥覆盖编码缓冲区写满后分段送入摘要
+            String secret = "sec" + i + (i % 3 == 0 ? "中".repeat(200) : "");
+            assertAllMatch(values, secret);
+        }
+    }
+
+    @Test
+    void verifyPaymentResultSignAcceptsEitherCase() {
+        String sign = LegacyInflywaySignUtil.paymentResultSign("100.00", "USD", "PFC123", "M0001", "PO1", "01", SECRET);
+
+        assertTrue(InflywaySignUtil.verifyPaymentResultSign("100.00", "USD", "PFC123", "M0001", "PO1", "01",
+                sign, SECRET));
+        assertTrue(InflywaySignUtil.verifyPaymentResultSign("100.00", "USD", "PFC123", "M0001", "PO1", "01",
+                sign.toLowerCase(Locale.ROOT), SECRET));
+    }
+
+    @Test
+    void verifyPaymentResultSignRejectsInvalidSign() {
+        String sign = InflywaySignUtil.paymentResultSign("100.00", "USD", "PFC123", "M0001", "PO1", "01", SECRET);
+        char last = sign.charAt(sign.length() - 1);
+        String tampered = sign.substring(0, sign.length() - 1) + (last == '0' ? '1' : '0');
+
+        assertFalse(verify(tampered));
+        assertFalse(verify(sign.substring(1)));
+        assertFalse(verify(sign + "0"));
+        assertFalse(verify("G" + sign.substring(1)));
+        // 全角数字、阿拉伯-印度数字不是合法的16进制字符，即使数值相同也要拒绝
+        assertFalse(verify(replaceFirstDigit(sign, '\uFF10')));
+        assertFalse(verify(replaceFirstDigit(sign, '\u0660')));
+        assertFalse(verify(""));
+        assertFalse(verify(null));
+        assertFalse(InflywaySignUtil.verifyPaymentResultSign("100.01", "USD", "PFC123", "M0001", "PO1", "01",
+                sign, SECRET));
+    }
+
+    private static boolean verify(String sign) {
+        return InflywaySignUtil.verifyPaymentResultSign("100.00", "USD", "PFC123", "M0001", "PO1", "01", sign, SECRET);
+    }
+
+    /**
+     * 把第一个ASCII数字替换为另一种数字字符中数值相同的字符
+     */
+    private static String replaceFirstDigit(String sign, char zero) {
+        char[] chars = sign.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= '0' && chars[i] <= '9') {
+                chars[i] = (char) (zero + (chars[i] - '0'));
+                return new String(chars);
+            }
+        }
+        throw new IllegalStateException("签名中没有数字: " + sign);
+    }
+
+    private static void assertAllMatch(String[] v, String secret) {
+        assertEquals(LegacyInflywaySignUtil.createPaymentSign(v[0], v[1], v[2], v[3], secret),
+                InflywaySignUtil.createPaymentSign(v[0], v[1], v[2], v[3], secret));
+
+        String resultSign = LegacyInflywaySignUtil.paymentResultSign(v[0], v[1], v[2], v[3], v[4], v[5], secret);
+        assertEquals(resultSign, InflywaySignUtil.paymentResultSign(v[0], v[1], v[2], v[3], v[4], v[5], secret));
+        assertTrue(InflywaySignUtil.verifyPaymentResultSign(v[0], v[1], v[2], v[3], v[4], v[5], resultSign, secret));
+
+        assertEquals(LegacyInflywaySignUtil.refundSign(v[0], v[1], v[2], v[3], secret),
+                InflywaySignUtil.refundSign(v[0], v[1], v[2], v[3], secret));
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("amount", v[0]);
+        params.put("timestamp", 1700000000000L);
+        params.put("hash", v[1]);
+        params.put("merchantNo", v[2]);
+        params.put("reason", v[6]);
+        String mapSign = LegacyInflywaySignUtil.generateSign(params, secret);
+        assertEquals(mapSign, InflywaySignUtil.generateSign(params, secret));
+        assertTrue(InflywaySignUtil.verifySign(params, mapSign, secret));
+    }
+
+    private static String randomString(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = random.nextInt(24);
+        for (int i = 0; i < length; i++) {
+            int kind = random.nextInt(10);
+            if (kind < 6) {
+                builder.append((char) (' ' + random.nextInt(95)));
+            } else if (kind < 8) {
+                builder.append((char) (0x80 + random.nextInt(0x780)));
+            } else if (kind < 9) {
+                builder.append((char) (0x800 + random.nextInt(0xD000)));
+            } else {
+                builder.appendCodePoint(0x10000 + random.nextInt(0x10000));
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,238 @@
+package com.pfcbuy.product.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.pfcbuy.common.utils.StringUtil;
+import com.pfcbuy.product.dto.ProductResolveResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 商品本地缓存（Redis之前的一级缓存）
+ * <p>
+ * 按估算的对象大小限制总容量，条目与Redis中的缓存同时过期；
+ * 临近过期的热点商品在后台提前刷新，读请求不会落到同步解析上。
+ * 商品重新解析后通过Redis发布/订阅通知其他实例删除本地副本。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+public class ProductNearCache implements MessageListener {
+
+    /**
+     * 缓存失效广播频道
+     */
+    public static final String INVALIDATE_CHANNEL = "product:cache:invalidate";
+
+    private static final char MESSAGE_SEPARATOR = '|';
+
+    /**
+     * 本实例标识，忽略自己发出的失效消息
+     */
+    private final String instanceId = StringUtil.generateUUID();
+
+    private final Cache<String, Entry> cache;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final long refreshAheadMillis;
+
+    public ProductNearCache(StringRedisTemplate stringRedisTemplate,
+                            @Value("${product.near-cache.max-weight:67108864}") long maxWeight,
+                            @Value("${product.near-cache.refresh-ahead:5m}") Duration refreshAhead,
+                            @Value("${product.near-cache.refresh-threads:2}") int refreshThreads,
+                            @Value("${product.near-cache.refresh-queue-size:1000}") int refreshQueueSize) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.refreshAheadMillis = refreshAhead.toMillis();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String key, Entry entry) -> entry.weight())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        long remainingMillis = entry.expireAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(refreshQueueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "product-cache-refresh-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        log.info("商品本地缓存初始化: maxWeight={}, refreshAhead={}", maxWeight, refreshAhead);
+    }
+
+    /**
+     * 获取本地缓存的商品
+     *
+     * @param key 商品缓存Key
+     * @return 未命中返回null
+     */
+    public Entry get(String key) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || entry.expireAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 写入本地缓存
+     *
+     * @param key 商品缓存Key
+     * @param value 商品信息
+     * @param expireAtMillis 过期时间（与Redis缓存一致）
+     */
+    public void put(String key, ProductResolveResponse value, long expireAtMillis) {
+        if (expireAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        cache.put(key, new Entry(value, expireAtMillis, estimateWeight(value)));
+    }
+
+    /**
+     * 是否需要提前刷新
+     */
+    public boolean needsRefresh(Entry entry) {
+        return entry.expireAtMillis() - System.currentTimeMillis() <= refreshAheadMillis;
+    }
+
+    /**
+     * 提交后台刷新任务，同一Key同一时刻只有一个刷新任务，队列已满时放弃本次刷新
+     *
+     * @param key 商品缓存Key
+     * @param task 刷新逻辑（重新解析并写入缓存）
+     */
+    public void refreshAsync(String key, Runnable task) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.warn("后台刷新商品缓存失败: key={}, error={}", key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            log.debug("商品缓存刷新队列已满，跳过: {}", key);
+        }
+    }
+
+    /**
+     * 删除本地缓存并通知其他实例
+     *
+     * @param key 商品缓存Key
+     */
+    public void invalidate(String key) {
+        cache.invalidate(key);
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, instanceId + MESSAGE_SEPARATOR + key);
+        } catch (Exception e) {
+            log.warn("广播商品缓存失效失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 收到其他实例的失效通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || body.startsWith(instanceId + MESSAGE_SEPARATOR)) {
+            return;
+        }
+        cache.invalidate(body.substring(separator + 1));
+    }
+
+    /**
+     * 当前缓存条目数（近似值）
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * 估算商品对象占用的堆内存（字节）
+     */
+    private static int estimateWeight(ProductResolveResponse value) {
+        int weight = 256 + length(value.getTitle()) + length(value.getSubtitle()) + length(value.getMainImage())
+                + length(value.getProductUrl());
+        List<String> images = value.getImages();
+        if (images != null) {
+            for (String image : images) {
+                weight += 48 + length(image);
+            }
+        }
+        List<ProductResolveResponse.SkuInfo> skus = value.getSkus();
+        if (skus != null) {
+            for (ProductResolveResponse.SkuInfo sku : skus) {
+                weight += 128 + length(sku.getSkuId()) + length(sku.getImage());
+                if (sku.getAttributes() != null) {
+                    weight += sku.getAttributes().size() * 96;
+                }
+            }
+        }
+        return weight;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : 40 + value.length() * 2;
+    }
+
+    /**
+     * 本地缓存条目
+     *
+     * @param value 商品信息（共享实例，调用方不得修改）
+     * @param expireAtMillis 过期时间（毫秒时间戳）
+     * @param weight 估算大小（字节）
+     */
+    public record Entry(ProductResolveResponse value, long expireAtMillis, int weight) {
+    }
+}
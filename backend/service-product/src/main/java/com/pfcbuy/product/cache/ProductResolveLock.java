@@ -0,0 +1,118 @@
+package com.pfcbuy.product.cache;
+
+import com.pfcbuy.common.constants.RedisConstants;
+import com.pfcbuy.common.utils.StringUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * 商品解析分布式锁
+ * <p>
+ * 多实例部署时，同一商品同一时刻只允许一个实例调用平台接口解析，
+ * 其他实例等待锁释放后读取其写入的缓存。Redis不可用时视为加锁成功，退化为各实例独立解析。
+ *
+ * @author PfcBuy Team
+ */
+@Slf4j
+@Component
+public class ProductResolveLock {
+
+    /**
+     * 仅删除自己持有的锁
+     */
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 50L;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final boolean enabled;
+
+    private final Duration lockTtl;
+
+    private final Duration waitTimeout;
+
+    public ProductResolveLock(StringRedisTemplate stringRedisTemplate,
+                              @Value("${product.resolve.lock.enabled:true}") boolean enabled,
+                              @Value("${product.resolve.lock.ttl:15s}") Duration lockTtl,
+                              @Value("${product.resolve.lock.wait-timeout:5s}") Duration waitTimeout) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.enabled = enabled;
+        this.lockTtl = lockTtl;
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * 尝试加锁
+     *
+     * @param cacheKey 商品缓存Key
+     * @return 加锁成功返回锁令牌（Redis不可用或未启用时返回空串），已被其他实例持有返回null
+     */
+    public String tryLock(String cacheKey) {
+        if (!enabled) {
+            return "";
+        }
+        String token = StringUtil.generateUUID();
+        try {
+            Boolean locked = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(RedisConstants.PRODUCT_RESOLVE_LOCK_KEY + cacheKey, token, lockTtl);
+            return Boolean.TRUE.equals(locked) ? token : null;
+        } catch (Exception e) {
+            log.warn("商品解析加锁失败，退化为本实例解析: {}", e.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * 释放锁
+     *
+     * @param cacheKey 商品缓存Key
+     * @param token 加锁时返回的令牌
+     */
+    public void unlock(String cacheKey, String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute(UNLOCK_SCRIPT,
+                    Collections.singletonList(RedisConstants.PRODUCT_RESOLVE_LOCK_KEY + cacheKey), token);
+        } catch (Exception e) {
+            log.warn("商品解析释放锁失败，等待自动过期: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 等待其他实例释放锁
+     *
+     * @param cacheKey 商品缓存Key
+     * @return true-锁已释放 false-等待超时
+     */
+    public boolean awaitRelease(String cacheKey) {
+        String lockKey = RedisConstants.PRODUCT_RESOLVE_LOCK_KEY + cacheKey;
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        try {
+            while (Boolean.TRUE.equals(stringRedisTemplate.hasKey(lockKey))) {
+                if (System.nanoTime() - deadline >= 0) {
+                    return false;
+                }
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.warn("等待商品解析锁失败: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.pfcbuy.product.controller;
 import com.pfcbuy.common.result.Result;
 import com.pfcbuy.product.dto.ProductResolveRequest;
 import com.pfcbuy.product.dto.ProductResolveResponse;
+import com.pfcbuy.product.dto.SnapshotBatchRequest;
 import com.pfcbuy.product.service.ProductService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 商品控制器
@@ -65,6 +67,25 @@ public class ProductController {
         return Result.success(response);
     }
 
+    /**
+     * 批量获取商品快照
+     * 
+     * POST /api/v1/products/snapshots/batch
+     * 
+     * @param request 快照ID列表
+     * @return 快照ID -> 商品信息，不存在的快照不返回
+     */
+    @PostMapping("/snapshots/batch")
+    public Result<Map<Long, ProductResolveResponse>> getProductsBySnapshots(
+            @Validated @RequestBody SnapshotBatchRequest request) {
+        
+        log.info("批量查询商品快照，数量: {}", request.getSnapshotIds().size());
+        
+        Map<Long, ProductResolveResponse> responses = productService.getProductsBySnapshotIds(request.getSnapshotIds());
+        
+        return Result.success(responses);
+    }
+
     /**
      * 获取支持的平台列表
      * 
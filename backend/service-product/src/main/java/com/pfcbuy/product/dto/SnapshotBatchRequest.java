@@ -0,0 +1,23 @@
+package com.pfcbuy.product.dto;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 批量查询商品快照请求DTO
+ * 
+ * @author PfcBuy Team
+ */
+@Data
+public class SnapshotBatchRequest {
+
+    /**
+     * 快照ID列表
+     */
+    @NotEmpty(message = "快照ID不能为空")
+    @Size(max = 200, message = "单次最多查询200个快照")
+    private List<Long> snapshotIds;
+}
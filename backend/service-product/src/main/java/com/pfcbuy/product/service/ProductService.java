@@ -3,7 +3,9 @@ package com.pfcbuy.product.service;
 import com.pfcbuy.product.dto.ProductResolveRequest;
 import com.pfcbuy.product.dto.ProductResolveResponse;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 商品服务接口
@@ -29,6 +31,14 @@ public interface ProductService {
      */
     ProductResolveResponse getProductBySnapshotId(Long snapshotId);
 
+    /**
+     * 根据快照ID批量获取商品信息
+     * 
+     * @param snapshotIds 快照ID列表
+     * @return 快照ID -> 商品信息，不存在的快照不返回
+     */
+    Map<Long, ProductResolveResponse> getProductsBySnapshotIds(Collection<Long> snapshotIds);
+
     /**
      * 获取支持的平台列表
      * 
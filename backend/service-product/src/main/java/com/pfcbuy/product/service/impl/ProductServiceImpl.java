@@ -1,6 +1,10 @@
 package com.pfcbuy.product.service.impl;
 
+import com.pfcbuy.common.constants.RedisConstants;
 import com.pfcbuy.common.exception.BusinessException;
+import com.pfcbuy.common.utils.SingleFlight;
+import com.pfcbuy.product.cache.ProductNearCache;
+import com.pfcbuy.product.cache.ProductResolveLock;
 import com.pfcbuy.product.dto.ProductResolveRequest;
 import com.pfcbuy.product.dto.ProductResolveResponse;
 import com.pfcbuy.product.entity.ProductSnapshot;
@@ -11,14 +15,20 @@ import com.pfcbuy.product.service.ProductService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -43,8 +53,23 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired
+    private ProductResolveLock resolveLock;
+
+    @Autowired
+    private ProductNearCache nearCache;
+
+    /**
+     * 同一商品的并发解析在本实例内合并为一次
+     */
+    private final SingleFlight<String, ProductResolveResponse> resolveFlight = new SingleFlight<>();
+
+    /**
+     * 解析商品
+     * <p>
+     * 不在事务中执行：平台接口调用耗时较长，快照只有一条INSERT，无需占用数据库连接等待。
+     */
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public ProductResolveResponse resolveProduct(ProductResolveRequest request) {
         log.info("开始解析商品，平台: {}, URL: {}", request.getPlatform(), request.getProductUrl());
 
@@ -63,7 +88,51 @@ public class ProductServiceImpl implements ProductService {
             }
         }
 
-        // 4. 调用解析器解析商品
+        // 4. 同一商品并发解析合并：本实例内共享结果，多实例间通过分布式锁串行
+        String cacheKey = buildCacheKey(request.getPlatform(), productId);
+        return resolveFlight.execute(cacheKey, () -> resolveExclusively(resolver, request, productId, cacheKey));
+    }
+
+    /**
+     * 持有分布式锁解析商品；锁被其他实例持有时等待其写入缓存
+     */
+    private ProductResolveResponse resolveExclusively(ProductResolver resolver, ProductResolveRequest request,
+                                                      String productId, String cacheKey) {
+        boolean forceRefresh = Boolean.TRUE.equals(request.getForceRefresh());
+        String token = resolveLock.tryLock(cacheKey);
+        if (token == null) {
+            if (resolveLock.awaitRelease(cacheKey)) {
+                ProductResolveResponse cachedProduct = getFromRedis(cacheKey);
+                if (cachedProduct != null) {
+                    log.info("其他实例已完成解析，从缓存获取商品信息: {}", productId);
+                    return cachedProduct;
+                }
+                token = resolveLock.tryLock(cacheKey);
+            }
+            if (token == null) {
+                log.warn("等待其他实例解析商品超时，本实例直接解析: {}", cacheKey);
+                token = "";
+            }
+        } else if (!forceRefresh) {
+            // 加锁前其他实例可能刚完成解析
+            ProductResolveResponse cachedProduct = getFromRedis(cacheKey);
+            if (cachedProduct != null) {
+                resolveLock.unlock(cacheKey, token);
+                return cachedProduct;
+            }
+        }
+
+        try {
+            return doResolve(resolver, request, productId);
+        } finally {
+            resolveLock.unlock(cacheKey, token);
+        }
+    }
+
+    /**
+     * 调用平台解析商品，保存快照并写入缓存
+     */
+    private ProductResolveResponse doResolve(ProductResolver resolver, ProductResolveRequest request, String productId) {
         ProductResolveResponse response;
         try {
             response = resolver.resolve(request.getProductUrl(), request.getSkuId());
@@ -72,11 +141,11 @@ public class ProductServiceImpl implements ProductService {
             throw new BusinessException("解析商品失败: " + e.getMessage());
         }
 
-        // 5. 保存快照到数据库
+        // 保存快照到数据库
         ProductSnapshot snapshot = saveSnapshot(response);
         response.setSnapshotId(snapshot.getId());
 
-        // 6. 缓存结果
+        // 缓存结果
         cacheProduct(request.getPlatform(), productId, response);
 
         log.info("商品解析完成，快照ID: {}", snapshot.getId());
@@ -87,12 +156,54 @@ public class ProductServiceImpl implements ProductService {
     public ProductResolveResponse getProductBySnapshotId(Long snapshotId) {
         log.info("根据快照ID获取商品: {}", snapshotId);
 
-        ProductSnapshot snapshot = snapshotMapper.selectById(snapshotId);
-        if (snapshot == null) {
+        ProductResolveResponse response = getProductsBySnapshotIds(List.of(snapshotId)).get(snapshotId);
+        if (response == null) {
             throw new BusinessException("商品快照不存在: " + snapshotId);
         }
 
-        return convertToResponse(snapshot);
+        return response;
+    }
+
+    /**
+     * 快照写入后不再修改，先批量读缓存，未命中的一次查库后回填
+     */
+    @Override
+    public Map<Long, ProductResolveResponse> getProductsBySnapshotIds(Collection<Long> snapshotIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(snapshotIds));
+        Map<Long, ProductResolveResponse> responses = new LinkedHashMap<>(ids.size() * 2);
+
+        // 1. 批量读缓存
+        List<Long> missingIds = new ArrayList<>();
+        List<Object> cached = multiGetSnapshots(ids);
+        for (int i = 0; i < ids.size(); i++) {
+            Object value = cached == null ? null : cached.get(i);
+            if (value instanceof ProductResolveResponse response) {
+                responses.put(ids.get(i), response);
+            } else {
+                missingIds.add(ids.get(i));
+            }
+        }
+        if (missingIds.isEmpty()) {
+            return responses;
+        }
+
+        // 2. 未命中的一次查库
+        Map<Long, ProductResolveResponse> loaded = new LinkedHashMap<>(missingIds.size() * 2);
+        for (ProductSnapshot snapshot : snapshotMapper.selectBatchIds(missingIds)) {
+            loaded.put(snapshot.getId(), convertToResponse(snapshot));
+        }
+        cacheSnapshots(loaded);
+
+        // 3. 按请求顺序合并
+        Map<Long, ProductResolveResponse> ordered = new LinkedHashMap<>(ids.size() * 2);
+        for (Long id : ids) {
+            ProductResolveResponse response = responses.containsKey(id) ? responses.get(id) : loaded.get(id);
+            if (response != null) {
+                ordered.put(id, response);
+            }
+        }
+        log.debug("批量查询商品快照: 请求={}, 缓存命中={}, 查库={}", ids.size(), responses.size(), loaded.size());
+        return ordered;
     }
 
     @Override
@@ -156,16 +267,40 @@ public class ProductServiceImpl implements ProductService {
     }
 
     /**
-     * 从缓存获取商品
+     * 从缓存获取商品（本地缓存 -> Redis），本地缓存临近过期时触发后台刷新
      * 
      * @param platform 平台
      * @param productId 商品ID
      * @return 商品信息，如果不存在返回null
      */
     private ProductResolveResponse getFromCache(String platform, String productId) {
+        String cacheKey = buildCacheKey(platform, productId);
+        ProductNearCache.Entry entry = nearCache.get(cacheKey);
+        if (entry != null) {
+            if (nearCache.needsRefresh(entry)) {
+                refreshAhead(platform, productId, cacheKey, entry.value());
+            }
+            return entry.value();
+        }
+        return getFromRedis(cacheKey);
+    }
+
+    /**
+     * 从Redis获取商品并放入本地缓存
+     * 
+     * @param cacheKey 缓存键
+     * @return 商品信息，如果不存在返回null
+     */
+    private ProductResolveResponse getFromRedis(String cacheKey) {
         try {
-            String cacheKey = buildCacheKey(platform, productId);
-            return (ProductResolveResponse) redisTemplate.opsForValue().get(cacheKey);
+            ProductResolveResponse cached = (ProductResolveResponse) redisTemplate.opsForValue().get(cacheKey);
+            if (cached != null && cached.getSnapshotTime() != null) {
+                // Redis缓存在解析完成时写入，以快照时间推算其过期时间
+                long expireAt = Math.min(cached.getSnapshotTime() + TimeUnit.MINUTES.toMillis(CACHE_EXPIRE_MINUTES),
+                        System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(CACHE_EXPIRE_MINUTES));
+                nearCache.put(cacheKey, cached, expireAt);
+            }
+            return cached;
         } catch (Exception e) {
             log.warn("从缓存获取商品失败: {}", e.getMessage());
             return null;
@@ -173,20 +308,89 @@ public class ProductServiceImpl implements ProductService {
     }
 
     /**
-     * 缓存商品信息
+     * 后台提前刷新热点商品，刷新期间继续返回当前缓存
+     */
+    private void refreshAhead(String platform, String productId, String cacheKey, ProductResolveResponse current) {
+        nearCache.refreshAsync(cacheKey, () -> {
+            // 其他实例已刷新过Redis时直接使用其结果
+            ProductResolveResponse latest = getFromRedis(cacheKey);
+            if (latest != null && latest.getSnapshotTime() != null && current.getSnapshotTime() != null
+                    && latest.getSnapshotTime() > current.getSnapshotTime()) {
+                return;
+            }
+
+            ProductResolveRequest request = new ProductResolveRequest();
+            request.setPlatform(platform);
+            request.setProductUrl(current.getProductUrl());
+            request.setForceRefresh(true);
+            ProductResolver resolver = resolverFactory.getResolver(platform);
+            resolveFlight.execute(cacheKey, () -> resolveExclusively(resolver, request, productId, cacheKey));
+            log.debug("商品缓存已提前刷新: {}", cacheKey);
+        });
+    }
+
+    /**
+     * 缓存商品信息，并通知其他实例删除本地旧副本
      * 
      * @param platform 平台
      * @param productId 商品ID
      * @param response 商品信息
      */
     private void cacheProduct(String platform, String productId, ProductResolveResponse response) {
+        String cacheKey = buildCacheKey(platform, productId);
         try {
-            String cacheKey = buildCacheKey(platform, productId);
             redisTemplate.opsForValue().set(cacheKey, response, CACHE_EXPIRE_MINUTES, TimeUnit.MINUTES);
             log.debug("商品已缓存: {}", cacheKey);
         } catch (Exception e) {
             log.warn("缓存商品失败: {}", e.getMessage());
         }
+        nearCache.invalidate(cacheKey);
+        nearCache.put(cacheKey, response,
+                System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(CACHE_EXPIRE_MINUTES));
+    }
+
+    /**
+     * 批量读取快照缓存
+     * 
+     * @param snapshotIds 快照ID列表
+     * @return 与ID顺序一致的缓存值，读取失败返回null
+     */
+    private List<Object> multiGetSnapshots(List<Long> snapshotIds) {
+        try {
+            List<String> keys = snapshotIds.stream()
+                    .map(id -> RedisConstants.PRODUCT_SNAPSHOT_KEY + id)
+                    .toList();
+            return redisTemplate.opsForValue().multiGet(keys);
+        } catch (Exception e) {
+            log.warn("批量读取快照缓存失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 批量写入快照缓存（单次管道往返）
+     * 
+     * @param snapshots 快照ID -> 商品信息
+     */
+    private void cacheSnapshots(Map<Long, ProductResolveResponse> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    snapshots.forEach((id, response) -> ops.opsForValue().set(
+                            RedisConstants.PRODUCT_SNAPSHOT_KEY + id, response,
+                            RedisConstants.PRODUCT_SNAPSHOT_EXPIRE, TimeUnit.SECONDS));
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("批量写入快照缓存失败: {}", e.getMessage());
+        }
     }
 
     /**
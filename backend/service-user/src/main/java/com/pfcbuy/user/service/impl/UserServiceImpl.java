@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.pfcbuy.common.exception.BusinessException;
 import com.pfcbuy.common.exception.ValidationException;
 import com.pfcbuy.common.utils.JwtUtil;
+import com.pfcbuy.common.utils.JwtVerifyResult;
 import com.pfcbuy.user.dto.LoginRequest;
 import com.pfcbuy.user.dto.LoginResponse;
 import com.pfcbuy.user.dto.RegisterRequest;
@@ -145,13 +146,15 @@ public class UserServiceImpl implements UserService {
         log.info("刷新Token");
         
         try {
-            // 1. 验证并解析Token
-            if (!JwtUtil.validateToken(refreshToken, jwtSecret)) {
+            // 1. 验证并解析Token（只解析一次）
+            JwtVerifyResult verified = JwtUtil.verifier(jwtSecret).verify(refreshToken);
+            if (!verified.isValid()) {
+                log.warn("刷新Token验证失败: {}", verified.getReason().getDescription());
                 throw new BusinessException(401, "Invalid refresh token");
             }
             
-            Long userId = JwtUtil.getUserIdFromToken(refreshToken, jwtSecret);
-            String username = JwtUtil.getUsernameFromToken(refreshToken, jwtSecret);
+            Long userId = verified.getUserId();
+            String username = verified.getUsername();
             
             // 2. 查询用户信息
             User user = getUserById(userId);
@@ -1,5 +1,6 @@
 package com.pfcbuy.warehouse.controller;
 
+import com.pfcbuy.common.page.CursorPage;
 import com.pfcbuy.common.result.Result;
 import com.pfcbuy.warehouse.dto.*;
 import com.pfcbuy.warehouse.service.PackageService;
@@ -8,7 +9,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 /**
  * 包裹管理控制器
@@ -73,13 +73,15 @@ public class PackageController {
     }
     
     /**
-     * 获取用户包裹列表
+     * 获取用户包裹列表（游标分页）
      */
     @GetMapping("/user/{userId}")
-    public Result<List<PackageResponse>> getUserPackages(
+    public Result<CursorPage<PackageResponse>> getUserPackages(
             @PathVariable Long userId,
-            @RequestParam(required = false) String status) {
-        List<PackageResponse> response = packageService.getUserPackages(userId, status);
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<PackageResponse> response = packageService.getUserPackages(userId, status, cursor, size);
         return Result.success(response);
     }
     
@@ -1,5 +1,6 @@
 package com.pfcbuy.warehouse.service;
 
+import com.pfcbuy.common.page.CursorPage;
 import com.pfcbuy.warehouse.dto.*;
 
 import java.util.List;
@@ -37,9 +38,9 @@ public interface PackageService {
     PackageResponse getPackageByNo(String packageNo);
     
     /**
-     * 获取用户包裹列表
+     * 获取用户包裹列表（游标分页）
      */
-    List<PackageResponse> getUserPackages(Long userId, String status);
+    CursorPage<PackageResponse> getUserPackages(Long userId, String status, String cursor, Integer size);
     
     /**
      * 计算仓储费
@@ -3,6 +3,9 @@ package com.pfcbuy.warehouse.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.pfcbuy.common.exception.BusinessException;
+import com.pfcbuy.common.id.IdGenerator;
+import com.pfcbuy.common.page.CursorPage;
+import com.pfcbuy.common.page.KeysetPagination;
 import com.pfcbuy.warehouse.dto.*;
 import com.pfcbuy.warehouse.entity.Package;
 import com.pfcbuy.warehouse.entity.PackageOperation;
@@ -20,7 +23,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -36,6 +38,7 @@ public class PackageServiceImpl implements PackageService {
     private final PackageMapper packageMapper;
     private final QcPhotoMapper qcPhotoMapper;
     private final PackageOperationMapper operationMapper;
+    private final IdGenerator idGenerator;
     
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -267,20 +270,17 @@ public class PackageServiceImpl implements PackageService {
     }
     
     @Override
-    public List<PackageResponse> getUserPackages(Long userId, String status) {
+    public CursorPage<PackageResponse> getUserPackages(Long userId, String status, String cursor, Integer size) {
         LambdaQueryWrapper<Package> wrapper = new LambdaQueryWrapper<Package>()
-                .eq(Package::getUserId, userId)
-                .orderByDesc(Package::getCreateTime);
+                .eq(Package::getUserId, userId);
         
         if (status != null && !status.isEmpty()) {
             wrapper.eq(Package::getStatus, status);
         }
         
-        List<Package> packages = packageMapper.selectList(wrapper);
+        CursorPage<Package> packages = KeysetPagination.select(packageMapper, wrapper, cursor, size);
         
-        return packages.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return packages.map(this::convertToResponse);
     }
     
     @Override
@@ -354,8 +354,7 @@ public class PackageServiceImpl implements PackageService {
      * 生成包裹号
      */
     private String generatePackageNo() {
-        return "PKG" + System.currentTimeMillis() + 
-               UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return idGenerator.nextNo("PKG");
     }
     
     /**
@@ -31,6 +31,7 @@ CREATE TABLE IF NOT EXISTS t_order (
     buyer_message VARCHAR(500) COMMENT '买家留言',
     admin_remark VARCHAR(500) COMMENT '管理员备注',
     cancel_reason VARCHAR(500) COMMENT '取消原因',
+    expire_time DATETIME COMMENT '过期时间(未支付订单)',
     payment_id BIGINT COMMENT '支付记录ID',
     payment_time DATETIME COMMENT '支付时间',
     complete_time DATETIME COMMENT '完成时间',
@@ -39,9 +40,10 @@ CREATE TABLE IF NOT EXISTS t_order (
     update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     is_deleted TINYINT DEFAULT 0 COMMENT '是否删除(0:否,1:是)',
     INDEX idx_order_no (order_no),
-    INDEX idx_user_id (user_id),
+    INDEX idx_user_create_time (user_id, create_time, id),
     INDEX idx_order_status (order_status),
     INDEX idx_pay_status (pay_status),
+    INDEX idx_status_expire_time (order_status, pay_status, expire_time),
     INDEX idx_create_time (create_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
@@ -36,7 +36,7 @@ CREATE TABLE IF NOT EXISTS t_payment (
     is_deleted TINYINT DEFAULT 0 COMMENT '是否删除(0:否,1:是)',
     INDEX idx_payment_no (payment_no),
     INDEX idx_order_no (order_no),
-    INDEX idx_user_id (user_id),
+    INDEX idx_user_create_time (user_id, create_time, id),
     INDEX idx_status (status),
     INDEX idx_payment_channel (payment_channel),
     INDEX idx_third_party_payment_id (third_party_payment_id),
@@ -99,3 +99,45 @@ CREATE TABLE IF NOT EXISTS t_balance_log (
     INDEX idx_create_time (create_time),
     INDEX idx_biz_id (biz_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='余额变动记录表';
+
+-- Webhook收件箱表（回调先落库再异步处理，按第三方事件ID去重）
+CREATE TABLE IF NOT EXISTS t_webhook_inbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
+    provider VARCHAR(50) NOT NULL COMMENT '支付渠道(STRIPE/INFLYWAY)',
+    event_id VARCHAR(128) NOT NULL COMMENT '第三方事件ID',
+    event_type VARCHAR(100) NOT NULL COMMENT '事件类型',
+    partition_key VARCHAR(128) NOT NULL COMMENT '分区键（同一支付的事件按顺序处理）',
+    payload MEDIUMTEXT NOT NULL COMMENT '原始回调内容',
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' COMMENT '状态(PENDING/PROCESSING/DONE/DEAD)',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '失败次数',
+    next_attempt_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次处理时间（处理中为租约到期时间）',
+    claim_owner VARCHAR(32) COMMENT '领取批次',
+    last_error VARCHAR(500) COMMENT '最后一次错误',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    is_deleted TINYINT DEFAULT 0 COMMENT '是否删除(0:否,1:是)',
+    UNIQUE KEY uk_provider_event_id (provider, event_id),
+    INDEX idx_status_next_attempt_time (status, next_attempt_time),
+    INDEX idx_partition (provider, partition_key, status),
+    INDEX idx_claim_owner (claim_owner)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Webhook收件箱表';
+
+-- 支付事件发件箱表（与支付状态在同一事务写入，由中继异步投递到订单服务）
+CREATE TABLE IF NOT EXISTS t_payment_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
+    event_key VARCHAR(128) NOT NULL COMMENT '幂等键',
+    event_type VARCHAR(50) NOT NULL COMMENT '事件类型(ORDER_PAID)',
+    payload TEXT NOT NULL COMMENT '消息内容（JSON）',
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' COMMENT '状态(PENDING/PROCESSING/DONE/DEAD)',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '失败次数',
+    next_attempt_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次投递时间（投递中为租约到期时间）',
+    claim_owner VARCHAR(32) COMMENT '领取批次',
+    last_error VARCHAR(500) COMMENT '最后一次错误',
+    delivered_time DATETIME COMMENT '投递成功时间',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    is_deleted TINYINT DEFAULT 0 COMMENT '是否删除(0:否,1:是)',
+    UNIQUE KEY uk_event_key (event_key),
+    INDEX idx_status_next_attempt_time (status, next_attempt_time),
+    INDEX idx_claim_owner (claim_owner)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='支付事件发件箱表';
@@ -37,7 +37,7 @@ CREATE TABLE IF NOT EXISTS t_package (
     update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     is_deleted TINYINT DEFAULT 0 COMMENT '是否删除(0:否,1:是)',
     INDEX idx_package_no (package_no),
-    INDEX idx_user_id (user_id),
+    INDEX idx_user_create_time (user_id, create_time, id),
     INDEX idx_order_no (order_no),
     INDEX idx_status (status),
     INDEX idx_qc_status (qc_status),